@@ -7,10 +7,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -27,14 +31,46 @@ public class BookingClient extends BaseClient {
         );
     }
 
-    public ResponseEntity<Object> getUserBookings(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getUserBookings(long userId, BookingState state, int from, int size, String cursor) {
+        return getPage("", userId, state, from, size, cursor);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("/owner/?state={state}", userId, parameters);
+    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, int from, int size, String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
+    }
+
+    public ResponseEntity<Object> getOwnerCalendar(long userId, LocalDateTime from, LocalDateTime to, int size,
+                                                   String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("from", from);
+        parameters.put("to", to);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/owner/calendar?from={from}&to={to}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/owner/calendar?from={from}&to={to}&size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getUserBookingSummary(long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerBookingSummary(long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, BookingState state, int from, int size,
+                                           String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
     public ResponseEntity<Object> bookItem(long bookerId, BookingSaveDto bookingSaveDto) {
@@ -48,4 +84,8 @@ public class BookingClient extends BaseClient {
     public ResponseEntity<Object> approveBooking(long ownerId, long bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, ownerId);
     }
+
+    public ResponseEntity<Object> decideBookings(long ownerId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", ownerId, decisions);
+    }
 }
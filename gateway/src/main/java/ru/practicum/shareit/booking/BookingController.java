@@ -1,16 +1,26 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.util.HttpHeaderUtil;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -29,20 +39,53 @@ public class BookingController {
 
     @GetMapping
     public ResponseEntity<Object> getUserBookings(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) long bookerId,
-                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+                                                  @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                  @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                  @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size,
+                                                  @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("GET /bookings, state={}, bookerId={}", stateParam, bookerId);
-        return bookingClient.getUserBookings(bookerId, state);
+        log.info("GET /bookings, state={}, bookerId={}, from={}, size={}, cursor={}", stateParam, bookerId, from, size,
+                cursor);
+        return bookingClient.getUserBookings(bookerId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) long ownerId,
-                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam) {
+                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                   @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                   @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size,
+                                                   @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("GET /bookings/owner, state={}, ownerId={}", state, ownerId);
-        return bookingClient.getOwnerBookings(ownerId, state);
+        log.info("GET /bookings/owner, state={}, ownerId={}, from={}, size={}, cursor={}", state, ownerId, from, size,
+                cursor);
+        return bookingClient.getOwnerBookings(ownerId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/calendar")
+    public ResponseEntity<Object> getOwnerCalendar(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) long ownerId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to,
+                                                   @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size,
+                                                   @RequestParam(required = false) String cursor) {
+        log.info("GET /bookings/owner/calendar, ownerId={}, from={}, to={}, size={}, cursor={}", ownerId, from, to,
+                size, cursor);
+        return bookingClient.getOwnerCalendar(ownerId, from, to, size, cursor);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getUserBookingSummary(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) long bookerId) {
+        log.info("GET /bookings/summary, bookerId={}", bookerId);
+        return bookingClient.getUserBookingSummary(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerBookingSummary(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) long ownerId) {
+        log.info("GET /bookings/owner/summary, ownerId={}", ownerId);
+        return bookingClient.getOwnerBookingSummary(ownerId);
     }
 
     @GetMapping("/{bookingId}")
@@ -59,4 +102,12 @@ public class BookingController {
         log.info("PATCH bookings/{bookingId}, bookingId={}, ownerId={}", bookingId, ownerId);
         return bookingClient.approveBooking(ownerId, bookingId, approved);
     }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> decideBookings(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long ownerId,
+                                                 @RequestBody @NotEmpty @Size(max = 100)
+                                                 List<@Valid BookingDecisionDto> decisions) {
+        log.info("PATCH bookings/batch, decisions={}, ownerId={}", decisions, ownerId);
+        return bookingClient.decideBookings(ownerId, decisions);
+    }
 }
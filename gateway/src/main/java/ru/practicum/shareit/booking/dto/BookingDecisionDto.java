@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class BookingDecisionDto {
+    @NotNull(message = "id бронирования должен быть указан")
+    @Positive(message = "id бронирования должен быть положительным")
+    private Long bookingId;
+
+    @NotNull(message = "Решение по бронированию должно быть указано")
+    private Boolean approved;
+}
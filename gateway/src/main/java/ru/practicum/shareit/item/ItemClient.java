@@ -11,6 +11,11 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentSaveDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class ItemClient extends BaseClient {
 
@@ -42,8 +47,49 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchItem(String text) {
-        return get("/search?text=" + text);
+    public ResponseEntity<Object> searchItem(String text, int from, int size, String cursor, LocalDateTime start,
+                                             LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}&size={size}");
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            path.append("&cursor={cursor}");
+        }
+        if (start != null) {
+            parameters.put("start", start);
+            path.append("&start={start}");
+        }
+        if (end != null) {
+            parameters.put("end", end);
+            path.append("&end={end}");
+        }
+        return get(path.toString(), null, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getNextFreeSlot(long itemId, Duration duration) {
+        Map<String, Object> parameters = Map.of(
+                "duration", duration
+        );
+        return get("/" + itemId + "/next-free?duration={duration}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> updateItem(long userId, long itemId, ItemSaveDto itemDto) {
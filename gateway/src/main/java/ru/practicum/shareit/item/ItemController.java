@@ -1,8 +1,12 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,6 +16,9 @@ import ru.practicum.shareit.item.dto.ItemSaveDto;
 import ru.practicum.shareit.util.HttpHeaderUtil;
 import ru.practicum.shareit.validation.OnCreate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 @Controller
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -48,9 +55,41 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text) {
-        log.info("GET /items/search, text={}", text);
-        return itemClient.searchItem(text);
+    public ResponseEntity<Object> searchItem(@RequestParam String text,
+                                             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                             @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("GET /items/search, text={}, from={}, size={}, cursor={}, start={}, end={}", text, from, size,
+                cursor, start, end);
+        return itemClient.searchItem(text, from, size, cursor, start, end);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.info("GET /items/{itemId}/availability, itemId={}, from={}, to={}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/next-free")
+    public ResponseEntity<Object> getNextFreeSlot(@PathVariable Long itemId,
+                                                  @RequestParam Duration duration) {
+        log.info("GET /items/{itemId}/next-free, itemId={}, duration={}", itemId, duration);
+        return itemClient.getNextFreeSlot(itemId, duration);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10") @Positive @Max(100) Integer size) {
+        log.info("GET /items/suggest, prefix={}, size={}", prefix, size);
+        return itemClient.suggestItemNames(prefix, size);
     }
 
     @PatchMapping("/{itemId}")
@@ -2,14 +2,22 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.util.HttpHeaderUtil;
+import ru.practicum.shareit.util.OptimisticLockRetry;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,6 +26,7 @@ import java.util.List;
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -38,19 +47,51 @@ public class BookingController {
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<BookingDto> getUserBookings(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long bookerId,
-                                            @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("Получение списка бронирований пользователя с id {}", bookerId);
-        return bookingService.getUserBookings(bookerId, state);
+    public ResponseEntity<List<BookingDto>> getUserBookings(
+            @RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long bookerId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получение списка бронирований пользователя с id {}, from={}, size={}", bookerId, from, size);
+        return toResponse(bookingService.getUserBookings(bookerId, state, from, size, cursor));
     }
 
     @GetMapping("/owner")
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(
+            @RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long ownerId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получение списка бронирований для всех вещей пользователя с id {}, from={}, size={}",
+                ownerId, from, size);
+        return toResponse(bookingService.getOwnerBookings(ownerId, state, from, size, cursor));
+    }
+
+    @GetMapping("/owner/calendar")
+    public ResponseEntity<List<BookingDto>> getOwnerCalendar(
+            @RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long ownerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получение календаря бронирований вещей пользователя с id {} c {} по {}", ownerId, from, to);
+        return toResponse(bookingService.getOwnerCalendar(ownerId, from, to, size, cursor));
+    }
+
+    @GetMapping("/summary")
     @ResponseStatus(HttpStatus.OK)
-    public List<BookingDto> getOwnerBookings(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long ownerId,
-                                             @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("Получение списка бронирований для всех вещей пользователя с id {}", ownerId);
-        return bookingService.getOwnerBookings(ownerId, state);
+    public BookingSummaryDto getUserBookingSummary(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long bookerId) {
+        log.info("Получение количества бронирований пользователя с id {} по состояниям", bookerId);
+        return bookingService.getUserBookingSummary(bookerId);
+    }
+
+    @GetMapping("/owner/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingSummaryDto getOwnerBookingSummary(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long ownerId) {
+        log.info("Получение количества бронирований вещей пользователя с id {} по состояниям", ownerId);
+        return bookingService.getOwnerBookingSummary(ownerId);
     }
 
     @PatchMapping("/{bookingId}")
@@ -59,8 +100,25 @@ public class BookingController {
                                      @PathVariable Long bookingId,
                                      @RequestParam Boolean approved) {
         log.info("Изменение статуса бронирования с id {}", bookingId);
-        BookingDto bookingDto = bookingService.approveBooking(ownerId, bookingId, approved);
+        BookingDto bookingDto = optimisticLockRetry.run(() ->
+                bookingService.approveBooking(ownerId, bookingId, approved));
         log.info("Статус бронирования с id {}: {}", bookingId, bookingDto.getStatus());
         return bookingDto;
     }
+
+    @PatchMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingDecisionResultDto> decideBookings(@RequestHeader(HttpHeaderUtil.USER_ID_HEADER) Long ownerId,
+                                                         @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("Изменение статусов {} бронирований владельцем с id {}", decisions.size(), ownerId);
+        return optimisticLockRetry.run(() -> bookingService.decideBookings(ownerId, decisions));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(HttpHeaderUtil.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
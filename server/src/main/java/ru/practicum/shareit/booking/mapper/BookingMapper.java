@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingListView;
+import ru.practicum.shareit.booking.repository.BookingSummaryView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.user.mapper.UserMapper;
 
@@ -10,4 +14,16 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 public interface BookingMapper {
 
     BookingDto mapToBookingDto(Booking booking);
+
+    @Mapping(target = "booker.id", source = "bookerId")
+    @Mapping(target = "booker.name", source = "bookerName")
+    @Mapping(target = "booker.email", source = "bookerEmail")
+    @Mapping(target = "item.id", source = "itemId")
+    @Mapping(target = "item.name", source = "itemName")
+    @Mapping(target = "item.description", source = "itemDescription")
+    @Mapping(target = "item.available", source = "itemAvailable")
+    BookingDto mapToBookingDto(BookingListView booking);
+
+    @Mapping(target = "all", source = "total")
+    BookingSummaryDto mapToBookingSummaryDto(BookingSummaryView summary);
 }
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,6 +17,20 @@ import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String SEEK_AFTER = "and (b.start < :start or (b.start = :start and b.id < :bookingId)) ";
+    String ORDER_BY_START_DESC = "order by b.start desc, b.id desc";
+    String SELECT_LIST_VIEW = "select new ru.practicum.shareit.booking.repository.BookingListView(" +
+            "b.id, b.start, b.end, b.status, u.id, u.name, u.email, i.id, i.name, i.description, i.available) " +
+            "from Booking b " +
+            "join b.booker u " +
+            "join b.item i ";
+    String COUNT_BY_STATE = "select count(*) as total, " +
+            "count(*) filter (where b.start_date < :date and b.end_date > :date) as current, " +
+            "count(*) filter (where b.end_date < :date) as past, " +
+            "count(*) filter (where b.start_date > :date) as future, " +
+            "count(*) filter (where b.status = 'WAITING') as waiting, " +
+            "count(*) filter (where b.status = 'REJECTED') as rejected " +
+            "from bookings b ";
 
     @Query("select b " +
             "from Booking b " +
@@ -22,45 +39,253 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "where b.id = :bookingId")
     Optional<Booking> findByIdWithBookerAndItem(@Param("bookingId") Long bookingId);
 
-    List<Booking> findAllByItemIdIn(List<Long> itemIds);
+    @Query("select b.item.id " +
+            "from Booking b " +
+            "where b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId);
+    @Query("select b " +
+            "from Booking b " +
+            "join fetch b.booker " +
+            "join fetch b.item i " +
+            "join fetch i.owner " +
+            "where b.id in :bookingIds")
+    List<Booking> findAllByIdInWithBookerAndItem(@Param("bookingIds") Collection<Long> bookingIds);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
+    @Query("select distinct b.item.id " +
+            "from Booking b " +
+            "where b.id in :bookingIds")
+    List<Long> findItemIdsByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 
-    @Query("select b " +
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.status as status " +
             "from Booking b " +
-            "where b.booker.id = :bookerId " +
-            "and b.start < :date " +
-            "and b.end > :date " +
-            "order by b.start desc")
-    List<Booking> findAllCurrentBookingsByBookerId(@Param("bookerId") Long bookerId,
-                                                   @Param("date") LocalDateTime date);
+            "where b.item.id = :itemId " +
+            "order by b.start")
+    List<BookingTimelineView> findTimelineViewsByItemId(@Param("itemId") Long itemId);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime date);
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.item.id in :itemIds " +
+            "order by b.item.id, b.start")
+    List<BookingTimelineView> findTimelineViewsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime date);
+    @Query("select count(b) > 0 " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status = :status " +
+            "and b.start < :end " +
+            "and b.end > :start " +
+            "and b.id <> :bookingId")
+    boolean existsOverlap(@Param("itemId") Long itemId,
+                          @Param("status") BookingStatus status,
+                          @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end,
+                          @Param("bookingId") long bookingId);
 
-    List<Booking> findAllByItemIdInOrderByStartDesc(Collection<Long> itemIds);
+    @Query(value = "select b.id " +
+            "from bookings b " +
+            "where b.status = 'WAITING' " +
+            "and b.start_date < :date " +
+            "order by b.start_date, b.id " +
+            "limit :limit " +
+            "for update skip locked", nativeQuery = true)
+    List<Long> lockStaleWaitingIds(@Param("date") LocalDateTime date, @Param("limit") int limit);
 
-    Optional<Booking> findByItemIdAndBookerId(Long itemId, Long bookerId);
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status in :statuses " +
+            "and b.start < :to " +
+            "and b.end > :from " +
+            "order by b.start")
+    List<BookingTimelineView> findItemBookingsInRange(@Param("itemId") Long itemId,
+                                                      @Param("statuses") Collection<BookingStatus> statuses,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
 
-    List<Booking> findAllByItemIdInAndStatusOrderByStartDesc(Collection<Long> itemIds, BookingStatus status);
+    @Query("select distinct b.item.id " +
+            "from Booking b " +
+            "where b.item.owner.id = :ownerId " +
+            "and b.start < :to " +
+            "and b.end > :from")
+    List<Long> findOwnerItemIdsWithBookingsInRange(@Param("ownerId") Long ownerId,
+                                                   @Param("from") LocalDateTime from,
+                                                   @Param("to") LocalDateTime to);
 
     @Query("select b " +
             "from Booking b " +
-            "where b.item.id in :itemIds " +
+            "join fetch b.booker " +
+            "join fetch b.item " +
+            "where b.item.id = :itemId " +
+            "and b.start < :to " +
+            "and b.end > :from " +
+            "and (b.start > :start or (b.start = :start and b.id > :bookingId)) " +
+            "order by b.start, b.id")
+    List<Booking> findItemBookingsInRangeAfter(@Param("itemId") Long itemId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("bookingId") Long bookingId,
+                                               Limit limit);
+
+    @Query("select b " +
+            "from Booking b " +
+            "join fetch b.booker " +
+            "join fetch b.item " +
+            "where b.item.owner.id = :ownerId " +
+            "and b.start < :to " +
+            "and b.end > :from " +
+            "and (b.start > :start or (b.start = :start and b.id > :bookingId)) " +
+            "order by b.start, b.id")
+    List<Booking> findOwnerBookingsInRangeAfter(@Param("ownerId") Long ownerId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("bookingId") Long bookingId,
+                                                Limit limit);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.id in :bookingIds")
+    List<BookingTimelineView> findTimelineViewsByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b " +
+            "set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds")
+    int updateStatus(@Param("bookingIds") Collection<Long> bookingIds, @Param("status") BookingStatus status);
+
+    @Query(SELECT_LIST_VIEW +
+            "where b.booker.id = :bookerId " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findBookerBookings(@Param("bookerId") Long bookerId,
+                                             @Param("start") LocalDateTime start,
+                                             @Param("bookingId") Long bookingId,
+                                             Pageable pageable);
+
+    @Query(SELECT_LIST_VIEW +
+            "where b.booker.id = :bookerId " +
+            "and b.status = :status " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findBookerBookingsByStatus(@Param("bookerId") Long bookerId,
+                                                     @Param("status") BookingStatus status,
+                                                     @Param("start") LocalDateTime start,
+                                                     @Param("bookingId") Long bookingId,
+                                                     Pageable pageable);
+
+    @Query(SELECT_LIST_VIEW +
+            "where b.booker.id = :bookerId " +
             "and b.start < :date " +
             "and b.end > :date " +
-            "order by b.start desc")
-    List<Booking> findAllCurrentBookingsByItemIds(@Param("itemIds") Collection<Long> itemIds,
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findCurrentBookerBookings(@Param("bookerId") Long bookerId,
+                                                    @Param("date") LocalDateTime date,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("bookingId") Long bookingId,
+                                                    Pageable pageable);
+
+    @Query(SELECT_LIST_VIEW +
+            "where b.booker.id = :bookerId " +
+            "and b.end < :date " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findPastBookerBookings(@Param("bookerId") Long bookerId,
+                                                 @Param("date") LocalDateTime date,
+                                                 @Param("start") LocalDateTime start,
+                                                 @Param("bookingId") Long bookingId,
+                                                 Pageable pageable);
+
+    @Query(SELECT_LIST_VIEW +
+            "where b.booker.id = :bookerId " +
+            "and b.start > :date " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findFutureBookerBookings(@Param("bookerId") Long bookerId,
+                                                   @Param("date") LocalDateTime date,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("bookingId") Long bookingId,
+                                                   Pageable pageable);
+
+    @Query("select b.item.id as itemId, " +
+            "max(case when b.end < :date then b.start end) as lastBooking, " +
+            "min(case when b.start > :date then b.start end) as nextBooking " +
+            "from Booking b " +
+            "where b.item.id in :itemIds " +
+            "group by b.item.id")
+    List<ItemBookingDatesView> findItemBookingDates(@Param("itemIds") Collection<Long> itemIds,
+                                                    @Param("date") LocalDateTime date);
+
+    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByStartDescIdDesc(Long itemId, LocalDateTime date);
+
+    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAscIdAsc(Long itemId, LocalDateTime date);
+
+    @Query(value = COUNT_BY_STATE +
+            "where b.booker_id = :bookerId", nativeQuery = true)
+    BookingSummaryView countBookerBookingsByState(@Param("bookerId") Long bookerId,
                                                   @Param("date") LocalDateTime date);
 
-    List<Booking> findAllByItemIdInAndEndBeforeOrderByStartDesc(Collection<Long> itemIds, LocalDateTime date);
+    @Query(value = COUNT_BY_STATE +
+            "join items i on i.id = b.item_id " +
+            "where i.owner_id = :ownerId", nativeQuery = true)
+    BookingSummaryView countOwnerBookingsByState(@Param("ownerId") Long ownerId,
+                                                 @Param("date") LocalDateTime date);
 
-    List<Booking> findAllByItemIdInAndStartAfterOrderByStartDesc(Collection<Long> itemIds, LocalDateTime date);
+    Optional<Booking> findByItemIdAndBookerId(Long itemId, Long bookerId);
+
+    @Query(SELECT_LIST_VIEW +
+            "where i.owner.id = :ownerId " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findOwnerBookings(@Param("ownerId") Long ownerId,
+                                            @Param("start") LocalDateTime start,
+                                            @Param("bookingId") Long bookingId,
+                                            Pageable pageable);
+
+    @Query(SELECT_LIST_VIEW +
+            "where i.owner.id = :ownerId " +
+            "and b.status = :status " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findOwnerBookingsByStatus(@Param("ownerId") Long ownerId,
+                                                    @Param("status") BookingStatus status,
+                                                    @Param("start") LocalDateTime start,
+                                                    @Param("bookingId") Long bookingId,
+                                                    Pageable pageable);
+
+    @Query(SELECT_LIST_VIEW +
+            "where i.owner.id = :ownerId " +
+            "and b.start < :date " +
+            "and b.end > :date " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findCurrentOwnerBookings(@Param("ownerId") Long ownerId,
+                                                   @Param("date") LocalDateTime date,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("bookingId") Long bookingId,
+                                                   Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime date);
+    @Query(SELECT_LIST_VIEW +
+            "where i.owner.id = :ownerId " +
+            "and b.end < :date " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findPastOwnerBookings(@Param("ownerId") Long ownerId,
+                                                @Param("date") LocalDateTime date,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("bookingId") Long bookingId,
+                                                Pageable pageable);
 
-    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByStartDesc(Long itemId, LocalDateTime date);
+    @Query(SELECT_LIST_VIEW +
+            "where i.owner.id = :ownerId " +
+            "and b.start > :date " +
+            SEEK_AFTER +
+            ORDER_BY_START_DESC)
+    List<BookingListView> findFutureOwnerBookings(@Param("ownerId") Long ownerId,
+                                                  @Param("date") LocalDateTime date,
+                                                  @Param("start") LocalDateTime start,
+                                                  @Param("bookingId") Long bookingId,
+                                                  Pageable pageable);
 }
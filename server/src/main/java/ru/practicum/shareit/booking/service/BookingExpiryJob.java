@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingTimelineView;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class BookingExpiryJob {
+    private final BookingRepository bookingRepository;
+    private final BookingTimelineStore bookingTimelineStore;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer batchTimer;
+    private final Counter expiredCounter;
+    private final int batchSize;
+
+    public BookingExpiryJob(BookingRepository bookingRepository, BookingTimelineStore bookingTimelineStore,
+                            ItemAvailabilityCache itemAvailabilityCache, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking.expiry.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingTimelineStore = bookingTimelineStore;
+        this.itemAvailabilityCache = itemAvailabilityCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTimer = Timer.builder("shareit.bookings.expiry.batch")
+                .description("Time to expire one batch of stale WAITING bookings")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("WAITING bookings rejected because their start date has passed")
+                .register(meterRegistry);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval:PT5M}",
+            initialDelayString = "${shareit.booking.expiry.interval:PT5M}")
+    public int expire() {
+        LocalDateTime date = LocalDateTime.now();
+        int total = 0;
+        int expired;
+        do {
+            expired = batchTimer.record(() -> transactionTemplate.execute(status -> expireBatch(date)));
+            total += expired;
+        } while (expired == batchSize);
+        if (total > 0) {
+            log.info("Отклонено {} неподтверждённых бронирований с наступившей датой начала", total);
+        }
+        return total;
+    }
+
+    private int expireBatch(LocalDateTime date) {
+        List<Long> bookingIds = bookingRepository.lockStaleWaitingIds(date, batchSize);
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<BookingTimelineView> bookings = bookingRepository.findTimelineViewsByIdIn(bookingIds);
+        bookingRepository.updateStatus(bookingIds, BookingStatus.REJECTED);
+        bookings.forEach(booking -> {
+            bookingTimelineStore.invalidate(booking.getItemId());
+            itemAvailabilityCache.invalidate(booking.getItemId());
+        });
+        expiredCounter.increment(bookingIds.size());
+        return bookingIds.size();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class BookingLockStripes {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public BookingLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+        ReentrantLock lock = stripe(itemId);
+        lock.lock();
+        TransactionUtil.afterCompletion(lock::unlock);
+    }
+
+    public void lockUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+        SortedSet<Integer> stripes = new TreeSet<>();
+        itemIds.forEach(itemId -> stripes.add(index(itemId)));
+        for (int index : stripes) {
+            locks[index].lock();
+            TransactionUtil.afterCompletion(locks[index]::unlock);
+        }
+    }
+
+    private ReentrantLock stripe(Long itemId) {
+        return locks[index(itemId)];
+    }
+
+    private int index(Long itemId) {
+        int hash = itemId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -1,9 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -11,9 +16,17 @@ public interface BookingService {
 
     BookingDto getBookingById(Long userId, Long bookingId);
 
-    List<BookingDto> getUserBookings(Long bookerId, BookingState state);
+    BookingPage getUserBookings(Long bookerId, BookingState state, int from, int size, String cursor);
 
-    List<BookingDto> getOwnerBookings(Long ownerId, BookingState state);
+    BookingPage getOwnerBookings(Long ownerId, BookingState state, int from, int size, String cursor);
+
+    BookingPage getOwnerCalendar(Long ownerId, LocalDateTime from, LocalDateTime to, int size, String cursor);
+
+    BookingSummaryDto getUserBookingSummary(Long bookerId);
+
+    BookingSummaryDto getOwnerBookingSummary(Long ownerId);
 
     BookingDto approveBooking(Long ownerId, Long bookingId, Boolean approved);
+
+    List<BookingDecisionResultDto> decideBookings(Long ownerId, List<BookingDecisionDto> decisions);
 }
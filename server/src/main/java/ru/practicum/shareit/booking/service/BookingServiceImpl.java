@@ -1,52 +1,98 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingListView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingOverlapException;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.ItemUnavailableException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityCache;
+import ru.practicum.shareit.item.service.OwnerItemIdsCache;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.util.OffsetPageRequest;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "bookings_approved_no_overlap";
+
     private final BookingMapper bookingMapper;
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final BookingTimelineStore bookingTimelineStore;
+    private final BookingLockStripes bookingLockStripes;
+    private final ItemBookingDates itemBookingDates;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final OwnerItemIdsCache ownerItemIdsCache;
+    private final OwnerBookingCalendar ownerBookingCalendar;
+
+    @Value("${shareit.booking.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${shareit.booking.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${shareit.booking.calendar.max-range:P366D}")
+    private Duration maxCalendarRange;
 
     @Override
     @Transactional
     public BookingDto addBooking(Long bookerId, BookingSaveDto bookingSaveDto) {
-        User booker = findUserById(bookerId);
+        User booker = userExistenceCache.getReference(bookerId);
+        bookingLockStripes.lockUntilCompletion(bookingSaveDto.getItemId());
         Item item = itemRepository.findById(bookingSaveDto.getItemId())
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь с id %d не найдена",
                         bookingSaveDto.getItemId())));
         if (!item.getAvailable()) {
             throw new ItemUnavailableException("Вещь недоступна для бронирования");
         }
+        checkOverlap(item.getId(), bookingSaveDto.getStart(), bookingSaveDto.getEnd(), null);
         Booking booking = new Booking();
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStart(bookingSaveDto.getStart());
         booking.setEnd(bookingSaveDto.getEnd());
         booking.setStatus(BookingStatus.WAITING);
-        return bookingMapper.mapToBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingTimelineStore.invalidate(item.getId());
+        itemBookingDates.refresh(item, LocalDateTime.now());
+        itemAvailabilityCache.invalidate(item.getId());
+        return bookingMapper.mapToBookingDto(savedBooking);
     }
 
     @Override
@@ -60,65 +106,199 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getUserBookings(Long bookerId, BookingState state) {
-        findUserById(bookerId);
-        List<Booking> bookings;
+    public BookingPage getUserBookings(Long bookerId, BookingState state, int from, int size, String cursor) {
+        userExistenceCache.checkExists(bookerId);
         LocalDateTime date = LocalDateTime.now();
-
-        switch (state) {
-            case ALL -> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(bookerId);
-            case CURRENT -> bookings = bookingRepository
-                    .findAllCurrentBookingsByBookerId(bookerId, date);
-            case PAST -> bookings = bookingRepository
-                    .findAllByBookerIdAndEndBeforeOrderByStartDesc(bookerId, date);
-            case FUTURE -> bookings = bookingRepository
-                    .findAllByBookerIdAndStartAfterOrderByStartDesc(bookerId, date);
-            case WAITING -> bookings = bookingRepository
-                    .findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING);
-            case REJECTED -> bookings = bookingRepository
-                    .findAllByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.REJECTED);
-            default -> throw new NotFoundException(String.format("Статус %s  не найден", state));
-        }
-        return bookings.stream()
-                .map(bookingMapper::mapToBookingDto)
-                .toList();
+        return getPage(from, size, cursor, (after, page) -> switch (state) {
+            case ALL -> bookingRepository.findBookerBookings(bookerId, after.getStart(), after.getBookingId(), page);
+            case CURRENT -> bookingRepository.findCurrentBookerBookings(bookerId, date,
+                    after.getStart(), after.getBookingId(), page);
+            case PAST -> bookingRepository.findPastBookerBookings(bookerId, date,
+                    after.getStart(), after.getBookingId(), page);
+            case FUTURE -> bookingRepository.findFutureBookerBookings(bookerId, date,
+                    after.getStart(), after.getBookingId(), page);
+            case WAITING -> bookingRepository.findBookerBookingsByStatus(bookerId, BookingStatus.WAITING,
+                    after.getStart(), after.getBookingId(), page);
+            case REJECTED -> bookingRepository.findBookerBookingsByStatus(bookerId, BookingStatus.REJECTED,
+                    after.getStart(), after.getBookingId(), page);
+        });
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(Long ownerId, BookingState state) {
-        findUserById(ownerId);
-        List<Item> items = itemRepository.findAllByOwnerId(ownerId);
+    public BookingPage getOwnerBookings(Long ownerId, BookingState state, int from, int size, String cursor) {
+        userExistenceCache.checkExists(ownerId);
+        if (!ownerItemIdsCache.hasItems(ownerId)) {
+            throw new NotFoundException(String.format("У пользователя c id %d ещё нет вещей", ownerId));
+        }
         LocalDateTime date = LocalDateTime.now();
 
-        if (items.isEmpty()) {
+        return getPage(from, size, cursor, (after, page) -> switch (state) {
+            case ALL -> bookingRepository.findOwnerBookings(ownerId, after.getStart(), after.getBookingId(), page);
+            case CURRENT -> bookingRepository.findCurrentOwnerBookings(ownerId, date,
+                    after.getStart(), after.getBookingId(), page);
+            case PAST -> bookingRepository.findPastOwnerBookings(ownerId, date,
+                    after.getStart(), after.getBookingId(), page);
+            case FUTURE -> bookingRepository.findFutureOwnerBookings(ownerId, date,
+                    after.getStart(), after.getBookingId(), page);
+            case WAITING -> bookingRepository.findOwnerBookingsByStatus(ownerId, BookingStatus.WAITING,
+                    after.getStart(), after.getBookingId(), page);
+            case REJECTED -> bookingRepository.findOwnerBookingsByStatus(ownerId, BookingStatus.REJECTED,
+                    after.getStart(), after.getBookingId(), page);
+        });
+    }
+
+    @Override
+    public BookingPage getOwnerCalendar(Long ownerId, LocalDateTime from, LocalDateTime to, int size, String cursor) {
+        if (from == null || to == null || !from.isBefore(to)
+                || Duration.between(from, to).compareTo(maxCalendarRange) > 0) {
+            throw new ValidationException("Некорректный интервал календаря бронирований");
+        }
+        if (size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы бронирований");
+        }
+        userExistenceCache.checkExists(ownerId);
+        if (!ownerItemIdsCache.hasItems(ownerId)) {
             throw new NotFoundException(String.format("У пользователя c id %d ещё нет вещей", ownerId));
         }
-
-        List<Long> itemIds = items.stream()
-                .map(Item::getId)
-                .toList();
-        List<Booking> bookings;
-
-        switch (state) {
-            case ALL -> bookings = bookingRepository.findAllByItemIdInOrderByStartDesc(itemIds);
-            case CURRENT -> bookings = bookingRepository.findAllCurrentBookingsByItemIds(itemIds, date);
-            case PAST -> bookings = bookingRepository.findAllByItemIdInAndEndBeforeOrderByStartDesc(itemIds, date);
-            case FUTURE -> bookings = bookingRepository.findAllByItemIdInAndStartAfterOrderByStartDesc(itemIds, date);
-            case WAITING ->
-                    bookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(itemIds, BookingStatus.WAITING);
-            case REJECTED ->
-                    bookings = bookingRepository.findAllByItemIdInAndStatusOrderByStartDesc(itemIds, BookingStatus.REJECTED);
-            default -> throw new NotFoundException(String.format("Статус %s не найден", state));
-        }
-        return bookings.stream()
+        int pageSize = Math.min(size, maxPageSize);
+        BookingCursor after = cursor == null || cursor.isBlank() ? OwnerBookingCalendar.first()
+                : BookingCursor.decode(cursor);
+        List<BookingDto> bookings = ownerBookingCalendar
+                .merge(ownerId, bookingRepository.findOwnerItemIdsWithBookingsInRange(ownerId, from, to), from, to,
+                        after, pageSize).stream()
                 .map(bookingMapper::mapToBookingDto)
                 .toList();
+        String nextCursor = bookings.size() == pageSize ? BookingCursor.of(bookings.getLast()).encode() : null;
+        return new BookingPage(bookings, nextCursor);
+    }
+
+    @Override
+    public BookingSummaryDto getUserBookingSummary(Long bookerId) {
+        userExistenceCache.checkExists(bookerId);
+        return bookingMapper.mapToBookingSummaryDto(
+                bookingRepository.countBookerBookingsByState(bookerId, LocalDateTime.now()));
+    }
+
+    @Override
+    public BookingSummaryDto getOwnerBookingSummary(Long ownerId) {
+        userExistenceCache.checkExists(ownerId);
+        if (!ownerItemIdsCache.hasItems(ownerId)) {
+            throw new NotFoundException(String.format("У пользователя c id %d ещё нет вещей", ownerId));
+        }
+        return bookingMapper.mapToBookingSummaryDto(
+                bookingRepository.countOwnerBookingsByState(ownerId, LocalDateTime.now()));
     }
 
     @Override
     @Transactional
     public BookingDto approveBooking(Long ownerId, Long bookingId, Boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронирование с id %d не найдено", bookingId)));
+        bookingLockStripes.lockUntilCompletion(itemId);
         Booking booking = findBookingById(bookingId);
+        decide(ownerId, booking, approved);
+        flush(booking.getId());
+        bookingTimelineStore.invalidate(booking.getItem().getId());
+        itemBookingDates.refresh(booking.getItem(), LocalDateTime.now());
+        itemAvailabilityCache.invalidate(booking.getItem().getId());
+        return bookingMapper.mapToBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> decideBookings(Long ownerId, List<BookingDecisionDto> decisions) {
+        if (decisions.size() > maxBatchSize) {
+            throw new ValidationException("Слишком много решений по бронированиям в одном запросе");
+        }
+        List<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        bookingLockStripes.lockUntilCompletion(bookingRepository.findItemIdsByIdIn(bookingIds));
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdInWithBookerAndItem(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        // сначала проверяем все решения, затем меняем статусы двумя запросами
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        Map<Long, BookingDecisionResultDto> accepted = new HashMap<>();
+        Map<Long, List<Booking>> approvedByItem = new HashMap<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            BookingDecisionResultDto result = new BookingDecisionResultDto(decision.getBookingId(), null, null);
+            results.add(result);
+            Booking booking = bookings.get(decision.getBookingId());
+            try {
+                if (decision.getBookingId() == null) {
+                    throw new ValidationException("id бронирования должен быть указан");
+                }
+                if (booking == null) {
+                    throw new NotFoundException(String.format("Бронирование с id %d не найдено",
+                            decision.getBookingId()));
+                }
+                if (accepted.containsKey(booking.getId())) {
+                    throw new DuplicatedDataException("Решение по бронированию уже указано в этом запросе");
+                }
+                checkDecision(ownerId, booking, decision.getApproved());
+                if (decision.getApproved()) {
+                    checkBatchOverlap(approvedByItem.getOrDefault(booking.getItem().getId(), List.of()), booking);
+                }
+            } catch (ValidationException | NotFoundException | ForbiddenException | DuplicatedDataException
+                     | BookingOverlapException e) {
+                result.setError(e.getMessage());
+                continue;
+            }
+            accepted.put(booking.getId(), result);
+            if (decision.getApproved()) {
+                approvedByItem.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>()).add(booking);
+                approvedIds.add(booking.getId());
+            } else {
+                rejectedIds.add(booking.getId());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        updateStatus(approvedIds, BookingStatus.APPROVED);
+        updateStatus(rejectedIds, BookingStatus.REJECTED);
+        List<Booking> decided = bookingRepository.findAllByIdInWithBookerAndItem(accepted.keySet());
+        LocalDateTime date = LocalDateTime.now();
+        decided.forEach(booking -> accepted.get(booking.getId()).setBooking(bookingMapper.mapToBookingDto(booking)));
+        decided.stream()
+                .map(Booking::getItem)
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (first, second) -> first))
+                .values()
+                .forEach(item -> {
+                    bookingTimelineStore.invalidate(item.getId());
+                    itemBookingDates.refresh(item, date);
+                    itemAvailabilityCache.invalidate(item.getId());
+                });
+        return results;
+    }
+
+    private BookingPage getPage(int from, int size, String cursor,
+                                BiFunction<BookingCursor, Pageable, List<BookingListView>> query) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы бронирований");
+        }
+        int pageSize = Math.min(size, maxPageSize);
+        BookingCursor after = cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+        Pageable page = OffsetPageRequest.of(after == null ? from : 0, pageSize);
+        List<BookingDto> bookings = query.apply(after == null ? BookingCursor.first() : after, page).stream()
+                .map(bookingMapper::mapToBookingDto)
+                .toList();
+        String nextCursor = bookings.size() == pageSize ? BookingCursor.of(bookings.getLast()).encode() : null;
+        return new BookingPage(bookings, nextCursor);
+    }
+
+    private void decide(Long ownerId, Booking booking, Boolean approved) {
+        checkDecision(ownerId, booking, approved);
+        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+    }
+
+    private void checkDecision(Long ownerId, Booking booking, Boolean approved) {
         if (!booking.getItem().getOwner().getId().equals(ownerId)) {
             throw new ForbiddenException("Подтверждение/отклонение бронирования может быть выполнено " +
                     "только владельцем вещи");
@@ -126,17 +306,60 @@ public class BookingServiceImpl implements BookingService {
         if (BookingStatus.APPROVED == booking.getStatus()) {
             throw new DuplicatedDataException("Бронирование уже подтверждено");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingMapper.mapToBookingDto(booking);
+        if (approved == null) {
+            throw new ValidationException("Решение по бронированию должно быть указано");
+        }
+        if (approved) {
+            checkOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getId());
+        }
+    }
+
+    private static void checkBatchOverlap(List<Booking> approved, Booking booking) {
+        for (Booking other : approved) {
+            if (other.getStart().isBefore(booking.getEnd()) && booking.getStart().isBefore(other.getEnd())) {
+                throw new BookingOverlapException(String.format("Бронирование пересекается с бронированием " +
+                        "с id %d, подтверждаемым в этом же запросе", other.getId()));
+            }
+        }
+    }
+
+    private void updateStatus(List<Long> bookingIds, BookingStatus status) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        try {
+            bookingRepository.updateStatus(bookingIds, status);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                throw new BookingOverlapException("Вещь уже забронирована на даты одного из бронирований");
+            }
+            throw e;
+        }
+    }
+
+    private void flush(Long bookingId) {
+        try {
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                throw new BookingOverlapException(String.format("Вещь уже забронирована на даты бронирования " +
+                        "с id %d", bookingId));
+            }
+            throw e;
+        }
+    }
+
+    private void checkOverlap(Long itemId, LocalDateTime start, LocalDateTime end, Long bookingId) {
+        if (bookingRepository.existsOverlap(itemId, BookingStatus.APPROVED, start, end,
+                bookingId == null ? -1 : bookingId)) {
+            throw new BookingOverlapException("Вещь уже забронирована на выбранные даты");
+        }
     }
 
     private Booking findBookingById(Long bookingId) {
         return bookingRepository.findByIdWithBookerAndItem(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Бронирование с id %d не найдено", bookingId)));
     }
-
-    private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
-    }
 }
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.Set;
+
+final class BookingTimeline {
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+    private final long[] ids;
+    private final BookingStatus[] statuses;
+
+    private BookingTimeline(long[] starts, long[] ends, long[] maxEnds, long[] ids, BookingStatus[] statuses) {
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = maxEnds;
+        this.ids = ids;
+        this.statuses = statuses;
+    }
+
+    static BookingTimeline of(long[] starts, long[] ends, long[] ids, BookingStatus[] statuses) {
+        return new BookingTimeline(starts, ends, maxEnds(ends), ids, statuses);
+    }
+
+    boolean overlaps(long start, long end, long excludedId, Set<BookingStatus> statuses) {
+        for (int i = startsBefore(end) - 1; i >= 0 && maxEnds[i] > start; i--) {
+            if (ends[i] > start && statuses.contains(this.statuses[i]) && ids[i] != excludedId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int startsBefore(long date) {
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < date) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] maxEnds(long[] ends) {
+        long[] result = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            result[i] = max;
+        }
+        return result;
+    }
+}
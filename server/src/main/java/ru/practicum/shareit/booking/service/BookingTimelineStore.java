@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingTimelineView;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class BookingTimelineStore {
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final Set<BookingStatus> BUSY = EnumSet.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingTimeline> timelines;
+
+    public BookingTimelineStore(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.timeline.cache.maximum-size:100000}") long maximumSize,
+                                @Value("${shareit.booking.timeline.cache.expire-after-write:PT1M}")
+                                Duration expireAfterWrite,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "bookingTimeline");
+    }
+
+    public void invalidate(Long itemId) {
+        timelines.invalidate(itemId);
+        TransactionUtil.afterCompletion(() -> timelines.invalidate(itemId));
+    }
+
+    public Set<Long> findFree(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        long from = toMicros(start);
+        long to = toMicros(end);
+        return timelines.getAll(itemIds, this::loadAll).entrySet().stream()
+                .filter(timeline -> !timeline.getValue().overlaps(from, to, -1, BUSY))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    // промахи одной страницы загружаются одним запросом; вещь без бронирований получает пустой календарь
+    private Map<Long, BookingTimeline> loadAll(Set<? extends Long> itemIds) {
+        Map<Long, List<BookingTimelineView>> bookings = bookingRepository
+                .findTimelineViewsByItemIdIn(List.copyOf(itemIds)).stream()
+                .collect(Collectors.groupingBy(BookingTimelineView::getItemId));
+        Map<Long, BookingTimeline> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, toTimeline(bookings.getOrDefault(itemId, List.of())));
+        }
+        return loaded;
+    }
+
+    private static BookingTimeline toTimeline(List<BookingTimelineView> bookings) {
+        int size = bookings.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        long[] ids = new long[size];
+        BookingStatus[] statuses = new BookingStatus[size];
+        for (int i = 0; i < size; i++) {
+            BookingTimelineView booking = bookings.get(i);
+            starts[i] = toMicros(booking.getStart());
+            ends[i] = toMicros(booking.getEnd());
+            ids[i] = booking.getId();
+            statuses[i] = booking.getStatus();
+        }
+        return BookingTimeline.of(starts, ends, ids, statuses);
+    }
+
+    private static long toMicros(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + date.getNano() / 1_000;
+    }
+}
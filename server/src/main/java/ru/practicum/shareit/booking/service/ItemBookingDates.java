@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingDatesView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemBookingDates {
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingLockStripes bookingLockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter inconsistentCounter;
+    private final int checkBatchSize;
+
+    private LocalDateTime lastSweep;
+
+    public ItemBookingDates(BookingRepository bookingRepository, ItemRepository itemRepository,
+                            BookingLockStripes bookingLockStripes, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.items.booking-dates.check-batch-size:500}") int checkBatchSize) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.bookingLockStripes = bookingLockStripes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inconsistentCounter = Counter.builder("shareit.items.booking-dates.inconsistent")
+                .description("Items whose cached last/next booking differs from the bookings table")
+                .register(meterRegistry);
+        this.checkBatchSize = checkBatchSize;
+    }
+
+    public void refresh(Item item, LocalDateTime date) {
+        Booking last = bookingRepository.findFirstByItemIdAndEndBeforeOrderByStartDescIdDesc(item.getId(), date)
+                .orElse(null);
+        Booking next = bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAscIdAsc(item.getId(), date)
+                .orElse(null);
+        item.setLastBookingId(last == null ? null : last.getId());
+        item.setLastBookingStart(last == null ? null : last.getStart());
+        item.setNextBookingId(next == null ? null : next.getId());
+        item.setNextBookingStart(next == null ? null : next.getStart());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-dates.sweep-interval:PT1M}",
+            initialDelayString = "${shareit.items.booking-dates.sweep-interval:PT1M}")
+    public synchronized void sweep() {
+        if (lastSweep == null) {
+            // после перезапуска неизвестно, сколько сервис простаивал: сверяем все вещи целиком
+            check();
+            return;
+        }
+        LocalDateTime date = LocalDateTime.now();
+        List<Long> itemIds = itemRepository.findIdsWithStaleBookingDates(lastSweep, date);
+        itemIds.forEach(itemId -> refresh(itemId, date));
+        lastSweep = date;
+        log.debug("Обновлены даты бронирований {} вещей", itemIds.size());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-dates.check-interval:PT1H}",
+            initialDelayString = "${shareit.items.booking-dates.check-interval:PT1H}")
+    public synchronized List<Long> check() {
+        if (lastSweep != null) {
+            sweep();
+        }
+        LocalDateTime date = lastSweep == null ? LocalDateTime.now() : lastSweep;
+        List<Long> inconsistent = new ArrayList<>();
+        long afterId = 0;
+        List<Item> items;
+        do {
+            items = itemRepository.findAllByIdGreaterThanOrderById(afterId, Limit.of(checkBatchSize));
+            if (items.isEmpty()) {
+                break;
+            }
+            Map<Long, ItemBookingDatesView> expected = bookingRepository
+                    .findItemBookingDates(items.stream().map(Item::getId).toList(), date).stream()
+                    .collect(Collectors.toMap(ItemBookingDatesView::getItemId, Function.identity()));
+            for (Item item : items) {
+                ItemBookingDatesView dates = expected.get(item.getId());
+                LocalDateTime last = dates == null ? null : dates.getLastBooking();
+                LocalDateTime next = dates == null ? null : dates.getNextBooking();
+                if (!matches(item.getLastBookingId(), item.getLastBookingStart(), last)
+                        || !matches(item.getNextBookingId(), item.getNextBookingStart(), next)) {
+                    inconsistent.add(item.getId());
+                }
+            }
+            afterId = items.getLast().getId();
+        } while (items.size() == checkBatchSize);
+        if (!inconsistent.isEmpty()) {
+            inconsistentCounter.increment(inconsistent.size());
+            log.warn("Даты бронирований расходятся с таблицей bookings у вещей {}", inconsistent);
+            inconsistent.forEach(itemId -> refresh(itemId, date));
+        }
+        lastSweep = date;
+        return inconsistent;
+    }
+
+    private void refresh(Long itemId, LocalDateTime date) {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingLockStripes.lockUntilCompletion(itemId);
+            itemRepository.findById(itemId).ifPresent(item -> refresh(item, date));
+        });
+    }
+
+    private static boolean matches(Long bookingId, LocalDateTime cached, LocalDateTime expected) {
+        return Objects.equals(cached, expected) && (bookingId == null) == (expected == null);
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// при большом числе вещей один запрос по владельцу дешевле, чем курсор на каждую вещь
+@Component
+public class OwnerBookingCalendar {
+    private static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0);
+    private static final Comparator<ItemCursor> BY_HEAD = Comparator
+            .comparing((ItemCursor cursor) -> cursor.head().getStart())
+            .thenComparing(cursor -> cursor.head().getId());
+
+    private final BookingRepository bookingRepository;
+    private final int chunkSize;
+    private final int maxCursors;
+
+    public OwnerBookingCalendar(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.calendar.chunk-size:20}") int chunkSize,
+                                @Value("${shareit.booking.calendar.max-cursors:32}") int maxCursors) {
+        this.bookingRepository = bookingRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxCursors = maxCursors;
+    }
+
+    public static BookingCursor first() {
+        return FIRST;
+    }
+
+    public List<Booking> merge(Long ownerId, Collection<Long> itemIds, LocalDateTime from, LocalDateTime to,
+                               BookingCursor after, int limit) {
+        if (itemIds.size() > maxCursors) {
+            return bookingRepository.findOwnerBookingsInRangeAfter(ownerId, from, to, after.getStart(),
+                    after.getBookingId(), Limit.of(limit));
+        }
+        int fetchSize = Math.min(chunkSize, limit);
+        PriorityQueue<ItemCursor> cursors = new PriorityQueue<>(Math.max(1, itemIds.size()), BY_HEAD);
+        for (Long itemId : itemIds) {
+            ItemCursor cursor = new ItemCursor(itemId, after);
+            if (cursor.advance(from, to, fetchSize)) {
+                cursors.add(cursor);
+            }
+        }
+        List<Booking> bookings = new ArrayList<>(limit);
+        while (bookings.size() < limit && !cursors.isEmpty()) {
+            ItemCursor cursor = cursors.poll();
+            bookings.add(cursor.buffer.poll());
+            if (cursor.advance(from, to, fetchSize)) {
+                cursors.add(cursor);
+            }
+        }
+        return bookings;
+    }
+
+    private class ItemCursor {
+        private final Long itemId;
+        private final Deque<Booking> buffer = new ArrayDeque<>();
+        private BookingCursor after;
+        private boolean exhausted;
+
+        ItemCursor(Long itemId, BookingCursor after) {
+            this.itemId = itemId;
+            this.after = after;
+        }
+
+        Booking head() {
+            return buffer.peek();
+        }
+
+        boolean advance(LocalDateTime from, LocalDateTime to, int fetchSize) {
+            if (buffer.isEmpty() && !exhausted) {
+                List<Booking> chunk = bookingRepository.findItemBookingsInRangeAfter(itemId, from, to,
+                        after.getStart(), after.getBookingId(), Limit.of(fetchSize));
+                buffer.addAll(chunk);
+                exhausted = chunk.size() < fetchSize;
+                if (!chunk.isEmpty()) {
+                    after = new BookingCursor(chunk.getLast().getStart(), chunk.getLast().getId());
+                }
+            }
+            return !buffer.isEmpty();
+        }
+    }
+}
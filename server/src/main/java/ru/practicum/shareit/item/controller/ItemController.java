@@ -2,12 +2,17 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.util.HttpHeaderUtil;
+import ru.practicum.shareit.util.OptimisticLockRetry;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +21,7 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final OptimisticLockRetry optimisticLockRetry;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -53,11 +59,52 @@ public class ItemController {
         return itemService.getItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public List<TimeSlotDto> getItemAvailability(@PathVariable Long itemId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime to) {
+        log.info("Получение занятых интервалов вещи с id {} c {} по {}", itemId, from, to);
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/next-free")
+    @ResponseStatus(HttpStatus.OK)
+    public TimeSlotDto getNextFreeSlot(@PathVariable Long itemId,
+                                       @RequestParam Duration duration) {
+        log.info("Поиск ближайшего свободного интервала вещи с id {} длительностью {}", itemId, duration);
+        return itemService.getNextFreeSlot(itemId, duration);
+    }
+
     @GetMapping("/search")
+    public ResponseEntity<List<ItemDto>> searchItem(@RequestParam String text,
+                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                    @RequestParam(defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime start,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime end) {
+        log.info("Поиск вещи по ключу {}, from={}, size={}", text, from, size);
+        ItemSearchPage page = start == null && end == null ? itemService.searchItem(text, from, size, cursor)
+                : itemService.searchItem(text, start, end, from, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(HttpHeaderUtil.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/suggest")
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> searchItem(@RequestParam String text) {
-        log.info("Поиск вещи по ключу {}", text);
-        return itemService.searchItem(text);
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Подсказки названий вещей по префиксу {}, size={}", prefix, size);
+        return itemService.suggestItemNames(prefix, size);
     }
 
     @PatchMapping("/{itemId}")
@@ -66,7 +113,7 @@ public class ItemController {
                               @PathVariable Long itemId,
                               @RequestBody ItemSaveDto itemDto) {
         log.info("Обновление данных вещи с id {} пользователя с id {}", itemId, userId);
-        ItemDto updatedItem = itemService.updateItem(userId, itemId, itemDto);
+        ItemDto updatedItem = optimisticLockRetry.run(() -> itemService.updateItem(userId, itemId, itemDto));
         log.info("Данные вещи {} с id {} успешно обновлены", updatedItem.getName(), updatedItem.getId());
         return updatedItem;
     }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
@@ -10,6 +11,7 @@ import ru.practicum.shareit.item.dto.ItemSaveDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -24,6 +26,20 @@ public interface ItemMapper {
     ItemDtoWithBookings mapToItemDtoWithBookings(Item item, Booking lastBooking, Booking nextBooking,
                                                  List<Comment> comments);
 
+    @Mapping(target = "id", source = "item.id")
+    @Mapping(target = "comments", source = "comments")
+    ItemDtoWithBookings mapToItemDtoWithBookings(Item item, LocalDateTime lastBooking, LocalDateTime nextBooking,
+                                                 List<Comment> comments);
+
+    @Mapping(target = "id", source = "item.id")
+    @Mapping(target = "lastBooking", source = "item.lastBookingStart")
+    @Mapping(target = "nextBooking", source = "item.nextBookingStart")
+    @Mapping(target = "comments", source = "comments")
+    ItemDtoWithBookings mapToItemDtoWithBookings(Item item, List<Comment> comments);
+
+    @Mapping(target = "authorName", ignore = true)
+    CommentDto mapToCommentDto(Comment comment);
+
     Item mapToItem(ItemSaveDto itemSaveDto);
 
     @Mapping(target = "itemId", source = "id")
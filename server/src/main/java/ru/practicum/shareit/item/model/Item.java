@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OptimisticLock;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "items")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Getter
 @Setter
 @ToString(exclude = {"owner", "request"})
@@ -24,11 +30,30 @@ public class Item {
 
     private Boolean available;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id")
     private User owner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    @OptimisticLock(excluded = true)
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @OptimisticLock(excluded = true)
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+
+    @OptimisticLock(excluded = true)
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @OptimisticLock(excluded = true)
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+
+    @Version
+    private Long version;
 }
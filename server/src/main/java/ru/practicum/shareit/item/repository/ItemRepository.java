@@ -1,28 +1,64 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwnerId(Long userId);
-
-    @Query("select i " +
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    @Query("select i.id " +
             "from Item i " +
-            "join fetch i.owner " +
-            "where i.id = :itemId")
-    Optional<Item> findByIdWithOwner(@Param("itemId") Long itemId);
+            "where i.owner.id = :ownerId " +
+            "order by i.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    List<ItemIndexView> findAllByAvailableTrue();
+
+    List<ItemIndexView> findAllByIdGreaterThanAndAvailableTrue(Long itemId);
 
     @Query("select i " +
             "from Item i " +
             "where i.available = true " +
-            "and lower(i.name) like lower(concat('%', :text, '%')) " +
-            "or lower(i.description) like lower(concat('%', :text, '%'))")
-    List<Item> searchItem(@Param("text") String text);
+            "and (lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "and (case when lower(i.name) like lower(concat('%', :text, '%')) then 2 else 1 end < :score " +
+            "or (case when lower(i.name) like lower(concat('%', :text, '%')) then 2 else 1 end = :score " +
+            "and i.id > :itemId)) " +
+            "order by case when lower(i.name) like lower(concat('%', :text, '%')) then 2 else 1 end desc, i.id")
+    List<Item> searchItem(@Param("text") String text,
+                          @Param("score") int score,
+                          @Param("itemId") long itemId,
+                          Pageable pageable);
+
+    @Query(value = "select * " +
+            "from items i " +
+            "where i.available = true " +
+            "and (lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "and (case when lower(i.name) like lower(concat('%', :text, '%')) then 2 else 1 end < :score " +
+            "or (case when lower(i.name) like lower(concat('%', :text, '%')) then 2 else 1 end = :score " +
+            "and i.id > :itemId)) " +
+            "order by case when lower(i.name) like lower(concat('%', :text, '%')) then 2 else 1 end desc, i.id " +
+            "limit :limit offset :offset", nativeQuery = true)
+    List<Item> searchItemByTrigram(@Param("text") String text,
+                                   @Param("score") int score,
+                                   @Param("itemId") long itemId,
+                                   @Param("offset") int offset,
+                                   @Param("limit") int limit);
+
+    List<Item> findAllByIdGreaterThanOrderById(Long itemId, Limit limit);
+
+    @Query("select i.id " +
+            "from Item i " +
+            "where i.nextBookingStart <= :date " +
+            "or exists (select b.id from Booking b where b.item = i and b.end >= :since and b.end < :date)")
+    List<Long> findIdsWithStaleBookingDates(@Param("since") LocalDateTime since,
+                                            @Param("date") LocalDateTime date);
 
     List<Item> findAllByRequestIdIn(List<Long> requestIds);
 
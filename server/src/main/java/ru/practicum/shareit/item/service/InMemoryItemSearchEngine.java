@@ -0,0 +1,344 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemIndexView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int NAME_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH = 3;
+    private static final int PREFIX_MATCH = 2;
+    private static final int INFIX_MATCH = 1;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchSnapshot snapshot;
+    private final MeterRegistry meterRegistry;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final TermIndex namePostings = new TermIndex();
+    private final TermIndex descriptionPostings = new TermIndex();
+    private final AtomicBoolean snapshotCurrent = new AtomicBoolean();
+    private long highWaterMark;
+    private long snapshotHighWaterMark;
+    private boolean snapshotDirty;
+    private Map<Long, IndexedItem> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Optional<ItemSearchSnapshot.Segment> segment = snapshot.read();
+        List<ItemIndexView> items = segment
+                .map(loaded -> itemRepository.findAllByIdGreaterThanAndAvailableTrue(loaded.highWaterMark()))
+                .orElseGet(itemRepository::findAllByAvailableTrue);
+        boolean stale = false;
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            namePostings.clear();
+            descriptionPostings.clear();
+            highWaterMark = 0;
+            segment.ifPresent(loaded -> {
+                loaded.documents().forEach(this::put);
+                highWaterMark = loaded.highWaterMark();
+            });
+            snapshotHighWaterMark = highWaterMark;
+            snapshotDirty = false;
+            snapshotCurrent.set(segment.isPresent());
+            for (ItemIndexView item : items) {
+                put(item.getId(), new IndexedItem(ItemTokenizer.tokenize(item.getName()),
+                        ItemTokenizer.tokenize(item.getDescription())));
+                highWaterMark = Math.max(highWaterMark, item.getId());
+            }
+            // изменения, проиндексированные во время загрузки, новее прочитанных строк
+            for (Map.Entry<Long, IndexedItem> change : pending.entrySet()) {
+                put(change.getKey(), change.getValue());
+                highWaterMark = Math.max(highWaterMark, change.getKey());
+                stale |= change.getKey() <= snapshotHighWaterMark;
+            }
+            pending = null;
+            snapshotDirty = stale;
+            snapshotCurrent.set(segment.isPresent() && !stale);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (stale) {
+            snapshot.delete();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        String source = segment.isPresent() ? "snapshot" : "database";
+        Timer.builder("shareit.search.index.warmup")
+                .description("Time to make the item search index ready after startup")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Поисковый индекс вещей построен из {}: {} вещей, догружено {}, за {} мс", source,
+                documents.size(), items.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.search.snapshot.interval:PT5M}",
+            initialDelayString = "${shareit.search.snapshot.interval:PT5M}")
+    public synchronized void saveSnapshot() {
+        if (!snapshot.isEnabled()) {
+            return;
+        }
+        ItemSearchSnapshot.Segment segment;
+        lock.writeLock().lock();
+        try {
+            segment = new ItemSearchSnapshot.Segment(highWaterMark, new HashMap<>(documents));
+            snapshotHighWaterMark = highWaterMark;
+            snapshotDirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        snapshot.write(segment);
+        lock.writeLock().lock();
+        try {
+            if (snapshotDirty) {
+                snapshot.delete();
+            } else {
+                snapshotCurrent.set(true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Снимок поискового индекса сохранён: {} вещей", segment.documents().size());
+    }
+
+    @PreDestroy
+    public void close() {
+        saveSnapshot();
+    }
+
+    @Override
+    public List<ItemSearchHit> search(String text, ItemSearchCursor after, int offset, int limit) {
+        String[] terms = ItemTokenizer.tokenize(text);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Map<Long, Integer> scores;
+        lock.readLock().lock();
+        try {
+            scores = score(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (after != null) {
+            scores.entrySet().removeIf(entry -> !after.isFollowedBy(entry.getValue(), entry.getKey()));
+        }
+        int wanted = offset + limit;
+        List<ItemSearchHit> hits = new ArrayList<>();
+        int checked = 0;
+        do {
+            // удалённые и недоступные вещи, которых ещё нет в индексе, не должны укорачивать страницу
+            List<Long> ranked = topK(scores, wanted + checked - hits.size());
+            List<Long> ids = ranked.subList(checked, ranked.size());
+            Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            for (Long id : ids) {
+                Item item = items.get(id);
+                if (item != null && Boolean.TRUE.equals(item.getAvailable())) {
+                    hits.add(new ItemSearchHit(item, scores.get(id)));
+                }
+            }
+            checked = ranked.size();
+        } while (hits.size() < wanted && checked < scores.size());
+        return offset < hits.size() ? hits.subList(offset, Math.min(hits.size(), wanted)) : List.of();
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem document = Boolean.TRUE.equals(item.getAvailable())
+                ? new IndexedItem(ItemTokenizer.tokenize(item.getName()),
+                ItemTokenizer.tokenize(item.getDescription()))
+                : null;
+        IndexedItem previous = replace(item.getId(), document);
+        TransactionUtil.afterRollback(List.of(this, item.getId()), () -> replace(item.getId(), previous));
+    }
+
+    private IndexedItem replace(Long itemId, IndexedItem document) {
+        IndexedItem previous;
+        boolean snapshotted;
+        lock.writeLock().lock();
+        try {
+            previous = put(itemId, document);
+            if (pending != null) {
+                pending.put(itemId, document);
+            }
+            highWaterMark = Math.max(highWaterMark, itemId);
+            snapshotted = itemId <= snapshotHighWaterMark;
+            snapshotDirty |= snapshotted;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (snapshotted && snapshotCurrent.compareAndSet(true, false)) {
+            snapshot.delete();
+        }
+        return previous;
+    }
+
+    private IndexedItem put(Long itemId, IndexedItem document) {
+        IndexedItem previous = documents.remove(itemId);
+        if (previous != null) {
+            namePostings.unlink(previous.nameTerms(), itemId);
+            descriptionPostings.unlink(previous.descriptionTerms(), itemId);
+        }
+        if (document != null) {
+            documents.put(itemId, document);
+            namePostings.link(document.nameTerms(), itemId);
+            descriptionPostings.link(document.descriptionTerms(), itemId);
+        }
+        return previous;
+    }
+
+    private Map<Long, Integer> score(String[] terms) {
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            namePostings.match(term, NAME_WEIGHT, termScores);
+            descriptionPostings.match(term, DESCRIPTION_WEIGHT, termScores);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                scores.replaceAll((id, score) -> score + termScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private static List<Long> topK(Map<Long, Integer> scores, int limit) {
+        Comparator<Map.Entry<Long, Integer>> ranking = Map.Entry.<Long, Integer>comparingByValue()
+                .reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<Long, Integer>> heap = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(heap);
+        ranked.sort(ranking);
+        return ranked.stream()
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static class TermIndex {
+        private static final int GRAM = 3;
+
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<String, Set<String>> grams = new HashMap<>();
+
+        void clear() {
+            postings.clear();
+            grams.clear();
+        }
+
+        void link(String[] terms, Long itemId) {
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(term, ids);
+                    grams(term).forEach(gram -> grams.computeIfAbsent(gram, key -> new HashSet<>()).add(term));
+                }
+                ids.add(itemId);
+            }
+        }
+
+        void unlink(String[] terms, Long itemId) {
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null && ids.remove(itemId) && ids.isEmpty()) {
+                    postings.remove(term);
+                    for (String gram : grams(term)) {
+                        Set<String> gramTerms = grams.get(gram);
+                        if (gramTerms != null && gramTerms.remove(term) && gramTerms.isEmpty()) {
+                            grams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        void match(String term, int weight, Map<Long, Integer> scores) {
+            for (Map.Entry<String, Set<Long>> posting : postings.subMap(term, term + '\uffff').entrySet()) {
+                int quality = posting.getKey().equals(term) ? EXACT_MATCH : PREFIX_MATCH;
+                merge(posting.getValue(), weight * quality, scores);
+            }
+            for (String indexed : infixCandidates(term)) {
+                if (!indexed.startsWith(term) && indexed.contains(term)) {
+                    merge(postings.get(indexed), weight * INFIX_MATCH, scores);
+                }
+            }
+        }
+
+        private Set<String> infixCandidates(String term) {
+            if (term.length() <= GRAM) {
+                return grams.getOrDefault(term, Set.of());
+            }
+            Set<String> smallest = null;
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Set<String> gramTerms = grams.get(term.substring(i, i + GRAM));
+                if (gramTerms == null) {
+                    return Set.of();
+                }
+                if (smallest == null || gramTerms.size() < smallest.size()) {
+                    smallest = gramTerms;
+                }
+            }
+            return smallest;
+        }
+
+        private static Set<String> grams(String term) {
+            Set<String> result = new HashSet<>();
+            for (int length = 1; length <= GRAM; length++) {
+                for (int i = 0; i + length <= term.length(); i++) {
+                    result.add(term.substring(i, i + length));
+                }
+            }
+            return result;
+        }
+
+        private static void merge(Set<Long> itemIds, int score, Map<Long, Integer> scores) {
+            for (Long itemId : itemIds) {
+                scores.merge(itemId, score, Math::max);
+            }
+        }
+    }
+}
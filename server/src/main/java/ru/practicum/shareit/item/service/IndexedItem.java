@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.service;
+
+record IndexedItem(String[] nameTerms, String[] descriptionTerms) {
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Component
+public class ItemAvailabilityCache {
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<Long, Long> generations;
+    private final Cache<RangeKey, List<TimeSlotDto>> busySlots;
+    private final Cache<DurationKey, TimeSlotDto> freeGaps;
+
+    public ItemAvailabilityCache(@Value("${shareit.items.availability.cache.maximum-size:10000}") long maximumSize,
+                                 MeterRegistry meterRegistry) {
+        // поколения берутся из общего счётчика, поэтому вытесненное поколение не совпадёт со старыми ключами
+        generations = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        busySlots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        freeGaps = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, busySlots, "itemAvailability");
+        CaffeineCacheMetrics.monitor(meterRegistry, freeGaps, "itemNextFree");
+    }
+
+    public List<TimeSlotDto> getBusySlots(Long itemId, LocalDateTime from, LocalDateTime to,
+                                          Supplier<List<TimeSlotDto>> loader) {
+        return busySlots.get(new RangeKey(itemId, generation(itemId), from, to), ignored -> loader.get());
+    }
+
+    public TimeSlotDto getFreeGap(Long itemId, Duration duration, Predicate<TimeSlotDto> fits,
+                                  Supplier<TimeSlotDto> loader) {
+        DurationKey key = new DurationKey(itemId, generation(itemId), duration);
+        TimeSlotDto gap = freeGaps.get(key, ignored -> loader.get());
+        if (!fits.test(gap)) {
+            gap = loader.get();
+            freeGaps.put(key, gap);
+        }
+        return gap;
+    }
+
+    public void invalidate(Long itemId) {
+        nextGeneration(itemId);
+        TransactionUtil.afterCompletion(() -> nextGeneration(itemId));
+    }
+
+    private long generation(Long itemId) {
+        return generations.get(itemId, id -> sequence.incrementAndGet());
+    }
+
+    private void nextGeneration(Long itemId) {
+        generations.put(itemId, sequence.incrementAndGet());
+    }
+
+    private record RangeKey(long itemId, long generation, LocalDateTime from, LocalDateTime to) {
+    }
+
+    private record DurationKey(long itemId, long generation, Duration duration) {
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemIndexView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemNameSuggester {
+    private static final String[] NO_TERMS = new String[0];
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String[]> itemTerms = new HashMap<>();
+    private Node root = new Node();
+    private Map<Long, String[]> pending;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pending = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<ItemIndexView> items = itemRepository.findAllByAvailableTrue();
+        lock.writeLock().lock();
+        try {
+            itemTerms.clear();
+            root = new Node();
+            for (ItemIndexView item : items) {
+                put(item.getId(), ItemTokenizer.tokenize(item.getName()));
+            }
+            // изменения, проиндексированные во время загрузки, новее прочитанных строк
+            pending.forEach(this::put);
+            pending = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Словарь подсказок по названиям вещей построен: {} вещей за {} мс", items.size(),
+                System.currentTimeMillis() - startedAt);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = prefix.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < normalized.length() && node != null; i++) {
+                node = node.child(normalized.charAt(i));
+            }
+            return node == null ? List.of() : complete(node, normalized, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        String[] terms = Boolean.TRUE.equals(item.getAvailable()) ? ItemTokenizer.tokenize(item.getName()) : NO_TERMS;
+        String[] previous;
+        lock.writeLock().lock();
+        try {
+            previous = change(item.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TransactionUtil.afterRollback(List.of(this, item.getId()), () -> restore(item.getId(), previous));
+    }
+
+    private void restore(Long itemId, String[] terms) {
+        lock.writeLock().lock();
+        try {
+            change(itemId, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private String[] change(Long itemId, String[] terms) {
+        if (pending != null) {
+            pending.put(itemId, terms);
+        }
+        return put(itemId, terms);
+    }
+
+    private String[] put(Long itemId, String[] terms) {
+        String[] previous = itemTerms.remove(itemId);
+        if (previous == null) {
+            previous = NO_TERMS;
+        }
+        for (String term : previous) {
+            update(term, -1);
+        }
+        if (terms.length > 0) {
+            itemTerms.put(itemId, terms);
+        }
+        for (String term : terms) {
+            update(term, 1);
+        }
+        return previous;
+    }
+
+    private void update(String term, int delta) {
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            Node next = path[i].child(term.charAt(i));
+            if (next == null) {
+                if (delta < 0) {
+                    return;
+                }
+                next = path[i].addChild(term.charAt(i));
+            }
+            path[i + 1] = next;
+        }
+        path[term.length()].count += delta;
+        for (int i = term.length(); i >= 0; i--) {
+            Node node = path[i];
+            node.recalculateBest();
+            if (i > 0 && node.best == 0) {
+                path[i - 1].removeChild(term.charAt(i - 1));
+            }
+        }
+    }
+
+    private static List<String> complete(Node start, String prefix, int limit) {
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator.comparingInt(Candidate::priority).reversed()
+                .thenComparing(Candidate::term));
+        List<String> result = new ArrayList<>(limit);
+        if (start.best > 0) {
+            queue.add(new Candidate(start, prefix, start.best, false));
+        }
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.complete()) {
+                result.add(candidate.term());
+                continue;
+            }
+            Node node = candidate.node();
+            if (node.count > 0) {
+                queue.add(new Candidate(node, candidate.term(), node.count, true));
+            }
+            for (int i = 0; i < node.size; i++) {
+                Node child = node.children[i];
+                queue.add(new Candidate(child, candidate.term() + node.labels[i], child.best, false));
+            }
+        }
+        return result;
+    }
+
+    private record Candidate(Node node, String term, int priority, boolean complete) {
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private int count;
+        private int best;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, size, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node addChild(char label) {
+            int index = -Arrays.binarySearch(labels, 0, size, label) - 1;
+            if (size == labels.length) {
+                int capacity = Math.max(2, size * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, index, labels, index + 1, size - index);
+            System.arraycopy(children, index, children, index + 1, size - index);
+            Node child = new Node();
+            labels[index] = label;
+            children[index] = child;
+            size++;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, size, label);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(labels, index + 1, labels, index, size - index - 1);
+            System.arraycopy(children, index + 1, children, index, size - index - 1);
+            size--;
+            children[size] = null;
+        }
+
+        void recalculateBest() {
+            int max = count;
+            for (int i = 0; i < size; i++) {
+                max = Math.max(max, children[i].best);
+            }
+            best = max;
+        }
+    }
+}
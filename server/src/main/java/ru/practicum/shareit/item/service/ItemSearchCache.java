@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+@Component
+public class ItemSearchCache {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Cache<Key, ItemSearchPage> cache;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.maximum-size:10000}") long maximumSize,
+                           MeterRegistry meterRegistry) {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public ItemSearchPage get(String text, int from, int size, String cursor,
+                              Function<String, ItemSearchPage> loader) {
+        Key key = new Key(generation.get(), normalize(text), from, size, cursor);
+        return cache.get(key, loaded -> loader.apply(loaded.text()));
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        TransactionUtil.afterCompletion(generation::incrementAndGet);
+    }
+
+    static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    private record Key(long generation, String text, int from, int size, String cursor) {
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Getter
+@RequiredArgsConstructor
+public class ItemSearchCursor {
+    private static final ItemSearchCursor FIRST = new ItemSearchCursor(Integer.MAX_VALUE, 0L);
+
+    private final int score;
+
+    private final long itemId;
+
+    public static ItemSearchCursor first() {
+        return FIRST;
+    }
+
+    public static ItemSearchCursor of(ItemSearchHit hit) {
+        return new ItemSearchCursor(hit.score(), hit.item().getId());
+    }
+
+    public static ItemSearchCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new ItemSearchCursor(Integer.parseInt(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException(String.format("Некорректный курсор поиска %s", value));
+        }
+    }
+
+    public boolean isFollowedBy(int score, long itemId) {
+        return score < this.score || (score == this.score && itemId > this.itemId);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((score + ":" + itemId).getBytes(StandardCharsets.UTF_8));
+    }
+}
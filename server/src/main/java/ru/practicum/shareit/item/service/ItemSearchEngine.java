@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<ItemSearchHit> search(String text, ItemSearchCursor after, int offset, int limit);
+
+    void index(Item item);
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+public record ItemSearchHit(Item item, int score) {
+}
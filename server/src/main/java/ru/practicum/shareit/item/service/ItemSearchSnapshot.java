@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class ItemSearchSnapshot {
+    private static final int MAGIC = 0x53484958;
+    private static final int FORMAT_VERSION = 1;
+
+    private final boolean enabled;
+    private final Path path;
+
+    public ItemSearchSnapshot(@Value("${shareit.search.snapshot.enabled:false}") boolean enabled,
+                              @Value("${shareit.search.snapshot.path:data/item-search.idx}") Path path) {
+        this.enabled = enabled;
+        this.path = path;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    Optional<Segment> read() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("Снимок поискового индекса {} имеет неизвестный формат", path);
+                return Optional.empty();
+            }
+            long highWaterMark = in.readLong();
+            String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) {
+                byte[] bytes = new byte[in.readUnsignedShort()];
+                in.readFully(bytes);
+                dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int count = in.readInt();
+            Map<Long, IndexedItem> documents = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                long itemId = in.readLong();
+                documents.put(itemId, new IndexedItem(readTerms(in, dictionary), readTerms(in, dictionary)));
+            }
+            return Optional.of(new Segment(highWaterMark, documents));
+        } catch (IOException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            log.warn("Не удалось прочитать снимок поискового индекса {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    void write(Segment segment) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (IndexedItem document : segment.documents().values()) {
+            for (String term : document.nameTerms()) {
+                dictionary.putIfAbsent(term, dictionary.size());
+            }
+            for (String term : document.descriptionTerms()) {
+                dictionary.putIfAbsent(term, dictionary.size());
+            }
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(segment.highWaterMark());
+                out.writeInt(dictionary.size());
+                for (String term : dictionary.keySet()) {
+                    byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(bytes.length);
+                    out.write(bytes);
+                }
+                out.writeInt(segment.documents().size());
+                for (Map.Entry<Long, IndexedItem> document : segment.documents().entrySet()) {
+                    out.writeLong(document.getKey());
+                    writeTerms(out, document.getValue().nameTerms(), dictionary);
+                    writeTerms(out, document.getValue().descriptionTerms(), dictionary);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить снимок поискового индекса {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String[] readTerms(DataInputStream in, String[] dictionary) throws IOException {
+        String[] terms = new String[in.readUnsignedShort()];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = dictionary[in.readInt()];
+        }
+        return terms;
+    }
+
+    private static void writeTerms(DataOutputStream out, String[] terms, Map<String, Integer> dictionary)
+            throws IOException {
+        out.writeShort(terms.length);
+        for (String term : terms) {
+            out.writeInt(dictionary.get(term));
+        }
+    }
+
+    record Segment(long highWaterMark, Map<Long, IndexedItem> documents) {
+    }
+}
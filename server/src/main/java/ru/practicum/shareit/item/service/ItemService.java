@@ -2,6 +2,8 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -11,7 +13,15 @@ public interface ItemService {
 
     ItemDtoWithBookings getItemById(Long userId, Long itemId);
 
-    List<ItemDto> searchItem(String text);
+    List<TimeSlotDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    TimeSlotDto getNextFreeSlot(Long itemId, Duration duration);
+
+    ItemSearchPage searchItem(String text, int from, int size, String cursor);
+
+    ItemSearchPage searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size, String cursor);
+
+    List<String> suggestItemNames(String prefix, int size);
 
     ItemDto updateItem(Long userId, Long itemId, ItemSaveDto itemDto);
 
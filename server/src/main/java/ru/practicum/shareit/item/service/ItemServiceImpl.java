@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingTimelineView;
+import ru.practicum.shareit.booking.service.BookingTimelineStore;
 import ru.practicum.shareit.exception.BookingUnavailableException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -19,30 +23,51 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final Set<BookingStatus> BUSY_STATUSES = EnumSet.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+    private static final Duration MIN_FREE_SLOT_WINDOW = Duration.ofDays(30);
+
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemNameSuggester itemNameSuggester;
+    private final BookingTimelineStore bookingTimelineStore;
+    private final ItemAvailabilityCache itemAvailabilityCache;
+    private final OwnerItemIdsCache ownerItemIdsCache;
+
+    @Value("${shareit.search.max-page-size:100}")
+    private int maxSearchPageSize;
+
+    @Value("${shareit.search.free.max-scanned:1000}")
+    private int maxScannedHits;
+
+    @Value("${shareit.items.availability.max-range:P366D}")
+    private Duration maxAvailabilityRange;
 
     @Override
     @Transactional
     public ItemDto addItem(Long userId, ItemSaveDto itemDto) {
-        User owner = findUserById(userId);
+        User owner = userExistenceCache.getReference(userId);
         Item item = itemMapper.mapToItem(itemDto);
         item.setOwner(owner);
         Long requestId = itemDto.getRequestId();
@@ -51,79 +76,153 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException(String.format("Запрос с id %d не найден", requestId)));
             item.setRequest(request);
         }
-        return itemMapper.mapToItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        ownerItemIdsCache.invalidate(userId);
+        itemSearchEngine.index(savedItem);
+        itemNameSuggester.index(savedItem);
+        itemSearchCache.invalidate();
+        return itemMapper.mapToItemDto(savedItem);
     }
 
     @Override
     public List<ItemDtoWithBookings> getAllUserItems(Long userId) {
-        findUserById(userId);
-        List<Item> items = itemRepository.findAllByOwnerId(userId);
-        List<Long> itemIds = items.stream()
-                .map(Item::getId)
-                .toList();
-        LocalDateTime date = LocalDateTime.now();
-
-        List<Booking> allBookings = bookingRepository.findAllByItemIdIn(itemIds);
-        Map<Long, List<Booking>> bookingsByItems = allBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()));
+        userExistenceCache.checkExists(userId);
+        List<Long> itemIds = ownerItemIdsCache.getItemIds(userId);
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Item> items = itemRepository.findAllCachedById(itemIds);
 
         List<Comment> allComments = commentRepository.findAllByItemIdIn(itemIds);
         Map<Long, List<Comment>> commentsByItems = allComments.stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.toList()));
 
         return items.stream()
-                .map(item -> {
-                    List<Booking> itemBookings = bookingsByItems.getOrDefault(item.getId(), List.of());
-
-                    Booking lastBooking = itemBookings.stream()
-                            .filter(booking -> booking.getEnd().isBefore(date))
-                            .max(Comparator.comparing(Booking::getStart))
-                            .orElse(null);
-                    Booking nextBooking = itemBookings.stream()
-                            .filter(booking -> booking.getStart().isAfter(date))
-                            .min(Comparator.comparing(Booking::getStart))
-                            .orElse(null);
-                    List<Comment> comments = commentsByItems.getOrDefault(item.getId(), List.of());
-                    return itemMapper.mapToItemDtoWithBookings(item, lastBooking, nextBooking, comments);
-                }).toList();
+                .map(item -> itemMapper.mapToItemDtoWithBookings(item,
+                        commentsByItems.getOrDefault(item.getId(), List.of())))
+                .toList();
     }
 
     @Override
     public ItemDtoWithBookings getItemById(Long userId, Long itemId) {
-        Booking lastBooking;
-        Booking nextBooking;
-        LocalDateTime date = LocalDateTime.now();
+        LocalDateTime lastBooking;
+        LocalDateTime nextBooking;
         Item item = findItemById(itemId);
         if (!item.getOwner().getId().equals(userId)) {
             lastBooking = null;
             nextBooking = null;
         } else {
-            lastBooking = bookingRepository
-                    .findFirstByItemIdAndEndBeforeOrderByStartDesc(item.getId(), date)
-                    .orElse(null);
-            nextBooking = bookingRepository
-                    .findFirstByItemIdAndStartAfterOrderByStartAsc(item.getId(), date)
-                    .orElse(null);
+            lastBooking = item.getLastBookingStart();
+            nextBooking = item.getNextBookingStart();
         }
         List<Comment> comments = commentRepository.findAllByItemId(item.getId());
         return itemMapper.mapToItemDtoWithBookings(item, lastBooking, nextBooking, comments);
     }
 
     @Override
-    public List<ItemDto> searchItem(String text) {
+    public List<TimeSlotDto> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(maxAvailabilityRange) > 0) {
+            throw new ValidationException("Некорректный интервал календаря доступности");
+        }
+        checkItemExists(itemId);
+        return itemAvailabilityCache.getBusySlots(itemId, from, to, () -> findBusySlots(itemId, from, to));
+    }
+
+    @Override
+    public TimeSlotDto getNextFreeSlot(Long itemId, Duration duration) {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxAvailabilityRange) > 0) {
+            throw new ValidationException("Некорректная длительность бронирования");
+        }
+        checkItemExists(itemId);
+        LocalDateTime date = LocalDateTime.now();
+        TimeSlotDto gap = itemAvailabilityCache.getFreeGap(itemId, duration,
+                cached -> !latest(cached.getStart(), date).plus(duration).isAfter(cached.getEnd()),
+                () -> findFreeGap(itemId, date, duration));
+        LocalDateTime start = latest(gap.getStart(), date);
+        return new TimeSlotDto(start, start.plus(duration));
+    }
+
+    @Override
+    public ItemSearchPage searchItem(String text, int from, int size, String cursor) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы поиска");
+        }
         if (text.isBlank()) {
-            return new ArrayList<>();
+            return new ItemSearchPage(new ArrayList<>(), null);
         }
-        return itemRepository.searchItem(text).stream()
-                .map(itemMapper::mapToItemDto)
+        int pageSize = Math.min(size, maxSearchPageSize);
+        ItemSearchCursor after = cursor == null || cursor.isBlank() ? null : ItemSearchCursor.decode(cursor);
+        int offset = after == null ? from : 0;
+        String afterKey = after == null ? null : after.encode();
+        return itemSearchCache.get(text, offset, pageSize, afterKey, normalized -> {
+            List<ItemSearchHit> hits = itemSearchEngine.search(normalized, after, offset, pageSize);
+            List<ItemDto> items = hits.stream()
+                    .map(hit -> itemMapper.mapToItemDto(hit.item()))
+                    .toList();
+            String nextCursor = hits.size() == pageSize ? ItemSearchCursor.of(hits.getLast()).encode() : null;
+            return new ItemSearchPage(items, nextCursor);
+        });
+    }
+
+    @Override
+    public ItemSearchPage searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size,
+                                     String cursor) {
+        if (start == null && end == null) {
+            return searchItem(text, from, size, cursor);
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Некорректный интервал свободных дат");
+        }
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы поиска");
+        }
+        if (text.isBlank()) {
+            return new ItemSearchPage(new ArrayList<>(), null);
+        }
+        int pageSize = Math.min(size, maxSearchPageSize);
+        ItemSearchCursor after = cursor == null || cursor.isBlank() ? null : ItemSearchCursor.decode(cursor);
+        int skip = after == null ? from : 0;
+        List<ItemSearchHit> found = new ArrayList<>(pageSize);
+        List<ItemSearchHit> hits;
+        int scanLimit = Math.max(maxScannedHits, pageSize);
+        int scanned = 0;
+        // короткая страница движка не означает конец выдачи, останавливаемся только на пустой;
+        // после scanLimit кандидатов отдаём неполную страницу с курсором на последний просмотренный
+        do {
+            hits = itemSearchEngine.search(text, after, 0, pageSize);
+            Set<Long> free = bookingTimelineStore.findFree(hits.stream().map(hit -> hit.item().getId()).toList(),
+                    start, end);
+            for (ItemSearchHit hit : hits) {
+                if (found.size() == pageSize || scanned == scanLimit) {
+                    break;
+                }
+                scanned++;
+                after = ItemSearchCursor.of(hit);
+                if (free.contains(hit.item().getId()) && skip-- <= 0) {
+                    found.add(hit);
+                }
+            }
+        } while (found.size() < pageSize && scanned < scanLimit && !hits.isEmpty());
+        List<ItemDto> items = found.stream()
+                .map(hit -> itemMapper.mapToItemDto(hit.item()))
                 .toList();
+        String nextCursor = found.size() == pageSize || scanned == scanLimit ? after.encode() : null;
+        return new ItemSearchPage(items, nextCursor);
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Некорректное количество подсказок");
+        }
+        return itemNameSuggester.suggest(prefix, Math.min(size, maxSearchPageSize));
     }
 
     @Override
     @Transactional
     public ItemDto updateItem(Long userId, Long itemId, ItemSaveDto itemDto) {
         Item item = findItemById(itemId);
-        findUserById(userId);
+        userExistenceCache.checkExists(userId);
         if (!item.getOwner().getId().equals(userId)) {
             throw new ForbiddenException("Обновление данных вещи доступно только её владельцу");
         }
@@ -136,13 +235,16 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
+        itemSearchEngine.index(item);
+        itemNameSuggester.index(item);
+        itemSearchCache.invalidate();
         return itemMapper.mapToItemDto(item);
     }
 
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentSaveDto commentDto) {
-        User author = findUserById(userId);
+        User author = userExistenceCache.getReference(userId);
         Item item = findItemById(itemId);
         Booking booking = bookingRepository.findByItemIdAndBookerId(itemId, userId)
                 .orElseThrow(() -> new BookingUnavailableException(String.format("Бронирование вещи с id %d " +
@@ -160,14 +262,54 @@ public class ItemServiceImpl implements ItemService {
         return commentMapper.mapToCommentDto(commentRepository.save(comment));
     }
 
+    private List<TimeSlotDto> findBusySlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingTimelineView> bookings = bookingRepository.findItemBookingsInRange(itemId, BUSY_STATUSES,
+                from, to);
+        List<TimeSlotDto> slots = new ArrayList<>();
+        for (BookingTimelineView booking : bookings) {
+            LocalDateTime start = latest(booking.getStart(), from);
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            TimeSlotDto last = slots.isEmpty() ? null : slots.getLast();
+            if (last == null || start.isAfter(last.getEnd())) {
+                slots.add(new TimeSlotDto(start, end));
+            } else if (end.isAfter(last.getEnd())) {
+                last.setEnd(end);
+            }
+        }
+        return List.copyOf(slots);
+    }
+
+    private TimeSlotDto findFreeGap(Long itemId, LocalDateTime date, Duration duration) {
+        Duration window = duration.multipliedBy(2).compareTo(MIN_FREE_SLOT_WINDOW) > 0
+                ? duration.multipliedBy(2) : MIN_FREE_SLOT_WINDOW;
+        LocalDateTime cursor = date;
+        while (true) {
+            LocalDateTime windowEnd = cursor.plus(window);
+            for (TimeSlotDto busy : findBusySlots(itemId, cursor, windowEnd)) {
+                if (!cursor.plus(duration).isAfter(busy.getStart())) {
+                    return new TimeSlotDto(cursor, busy.getStart());
+                }
+                cursor = busy.getEnd();
+            }
+            if (!cursor.plus(duration).isAfter(windowEnd)) {
+                return new TimeSlotDto(cursor, windowEnd);
+            }
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
     private Item findItemById(Long itemId) {
-        return itemRepository.findByIdWithOwner(itemId)
+        return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь с id %d не найдена",
                         itemId)));
     }
 
-    private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
+    private void checkItemExists(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
     }
 }
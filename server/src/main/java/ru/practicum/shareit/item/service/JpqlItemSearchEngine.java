@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.OffsetPageRequest;
+
+import java.util.List;
+import java.util.Locale;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpql")
+public class JpqlItemSearchEngine implements ItemSearchEngine {
+    static final int NAME_MATCH_SCORE = 2;
+    static final int DESCRIPTION_MATCH_SCORE = 1;
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemSearchHit> search(String text, ItemSearchCursor after, int offset, int limit) {
+        ItemSearchCursor cursor = after == null ? ItemSearchCursor.first() : after;
+        return toHits(itemRepository.searchItem(text, cursor.getScore(), cursor.getItemId(),
+                OffsetPageRequest.of(offset, limit)), text);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    static List<ItemSearchHit> toHits(List<Item> items, String text) {
+        String pattern = text.toLowerCase(Locale.ROOT);
+        return items.stream()
+                .map(item -> new ItemSearchHit(item, item.getName().toLowerCase(Locale.ROOT).contains(pattern)
+                        ? NAME_MATCH_SCORE
+                        : DESCRIPTION_MATCH_SCORE))
+                .toList();
+    }
+}
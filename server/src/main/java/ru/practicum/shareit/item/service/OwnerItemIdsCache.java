@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+// вес записи - число id, так что размер кэша ограничен суммарным числом вещей, а не владельцев
+@Component
+public class OwnerItemIdsCache {
+    private final ItemRepository itemRepository;
+    private final Cache<Long, long[]> cache;
+
+    public OwnerItemIdsCache(ItemRepository itemRepository,
+                             @Value("${shareit.items.owner-ids.cache.maximum-weight:1000000}") long maximumWeight,
+                             @Value("${shareit.items.owner-ids.cache.ttl:PT10M}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Long ownerId, long[] itemIds) -> itemIds.length + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ownerItemIds");
+    }
+
+    public List<Long> getItemIds(Long ownerId) {
+        return LongStream.of(load(ownerId)).boxed().toList();
+    }
+
+    public boolean hasItems(Long ownerId) {
+        return load(ownerId).length > 0;
+    }
+
+    public void invalidate(Long ownerId) {
+        cache.invalidate(ownerId);
+        TransactionUtil.afterCompletion(() -> cache.invalidate(ownerId));
+    }
+
+    private long[] load(Long ownerId) {
+        long[] itemIds = cache.getIfPresent(ownerId);
+        if (itemIds != null) {
+            return itemIds;
+        }
+        itemIds = itemRepository.findIdsByOwnerId(ownerId).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        // пустой результат не кэшируем: пользователь без вещей может добавить первую в любой момент
+        if (itemIds.length > 0) {
+            cache.put(ownerId, itemIds);
+        }
+        return itemIds;
+    }
+}
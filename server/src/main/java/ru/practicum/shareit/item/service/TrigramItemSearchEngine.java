@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemSearchHit> search(String text, ItemSearchCursor after, int offset, int limit) {
+        ItemSearchCursor cursor = after == null ? ItemSearchCursor.first() : after;
+        return JpqlItemSearchEngine.toHits(itemRepository.searchItemByTrigram(text, cursor.getScore(),
+                cursor.getItemId(), offset, limit), text);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+}
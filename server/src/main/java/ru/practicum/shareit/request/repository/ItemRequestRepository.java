@@ -1,15 +1,22 @@
 package ru.practicum.shareit.request.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @EntityGraph(attributePaths = "requester")
+    Optional<ItemRequest> findWithRequesterById(Long requestId);
+
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long requesterId);
 
+    @EntityGraph(attributePaths = "requester")
     List<ItemRequest> findAllByRequesterIdNotOrderByCreatedDesc(Long userId);
 }
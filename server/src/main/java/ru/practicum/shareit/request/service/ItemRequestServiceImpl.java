@@ -14,7 +14,7 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,8 +23,9 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository requestRepository;
     private final ItemRequestMapper requestMapper;
@@ -33,7 +34,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto addRequest(Long userId, ItemRequestSaveDto requestSaveDto) {
-        User requester = findUserById(userId);
+        User requester = userExistenceCache.getReference(userId);
         ItemRequest itemRequest = requestMapper.mapToItemRequest(requestSaveDto);
         itemRequest.setRequester(requester);
         itemRequest.setCreated(LocalDateTime.now());
@@ -54,7 +55,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getRequestById(Long requestId) {
-        ItemRequest request = requestRepository.findById(requestId)
+        ItemRequest request = requestRepository.findWithRequesterById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Запрос с id %d не найден", requestId)));
         List<Item> requestItems = itemRepository.findAllByRequestId(requestId);
         List<ItemResponseDto> responses = itemMapper.mapToItemResponseDto(requestItems);
@@ -63,11 +64,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return requestDto;
     }
 
-    private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден", userId)));
-    }
-
     private List<ItemRequestDto> getRequestsWithResponses(List<ItemRequest> requests) {
         List<Long> requestIds = requests.stream()
                 .map(ItemRequest::getId)
@@ -4,11 +4,14 @@ import org.mapstruct.Mapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserSaveDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserView;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
 
     UserDto mapToUserDto(User user);
 
+    UserDto mapToUserDto(UserView user);
+
     User mapToUser(UserSaveDto userDto);
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.repository;
+
+public interface UserView {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.Duration;
+
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existing;
+    private final Cache<Long, Boolean> missing;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.users.existence.cache.maximum-size:100000}") long maximumSize,
+                              @Value("${shareit.users.existence.cache.ttl:PT10M}") Duration ttl,
+                              @Value("${shareit.users.existence.cache.negative-ttl:PT5S}") Duration negativeTtl,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        existing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, existing, "userExists");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "userMissing");
+    }
+
+    public void checkExists(Long userId) {
+        if (existing.getIfPresent(userId) != null) {
+            return;
+        }
+        if (missing.getIfPresent(userId) == null) {
+            if (userRepository.existsById(userId)) {
+                TransactionUtil.afterCommit(() -> existing.put(userId, Boolean.TRUE));
+                return;
+            }
+            missing.put(userId, Boolean.TRUE);
+        }
+        throw new NotFoundException(String.format("Пользователь с id %d не найден", userId));
+    }
+
+    // прокси для внешнего ключа: строка читается, только если обратиться к полям кроме id
+    public User getReference(Long userId) {
+        checkExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    public void added(Long userId) {
+        missing.invalidate(userId);
+        TransactionUtil.afterCompletion(() -> missing.invalidate(userId));
+    }
+
+    public void removed(Long userId) {
+        existing.invalidate(userId);
+        TransactionUtil.afterCompletion(() -> existing.invalidate(userId));
+    }
+}
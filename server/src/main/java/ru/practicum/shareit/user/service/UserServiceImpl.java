@@ -15,9 +15,11 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserExistenceCache userExistenceCache;
 
     @Override
     @Transactional
@@ -26,12 +28,14 @@ public class UserServiceImpl implements UserService {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
             throw new DuplicatedDataException(String.format("Email %s уже используется", user.getEmail()));
         }
-        return userMapper.mapToUserDto(userRepository.save(user));
+        User savedUser = userRepository.save(user);
+        userExistenceCache.added(savedUser.getId());
+        return userMapper.mapToUserDto(savedUser);
     }
 
     @Override
     public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
+        return userRepository.findAllUserViews().stream()
                 .map(userMapper::mapToUserDto)
                 .toList();
     }
@@ -64,6 +68,7 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long userId) {
         findUserById(userId);
         userRepository.deleteById(userId);
+        userExistenceCache.removed(userId);
     }
 
     private User findUserById(Long userId) {
@@ -6,4 +6,6 @@ public class HttpHeaderUtil {
     }
 
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// повтор имеет смысл только в новой транзакции, поэтому внутри уже открытой действие выполняется один раз
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+    private final int maxAttempts;
+
+    public OptimisticLockRetry(@Value("${shareit.optimistic-lock.max-attempts:3}") int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public <T> T run(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Повтор после конфликта версий, попытка {}: {}", attempt + 1, e.getMessage());
+            }
+        }
+    }
+}
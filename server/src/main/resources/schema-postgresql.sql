@@ -0,0 +1,16 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS items_available_idx ON items (id) WHERE available;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period tsrange
+    GENERATED ALWAYS AS (tsrange(start_date, end_date, '[)')) STORED;
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''bookings_approved_no_overlap'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+            EXCLUDE USING gist (item_id WITH =, period WITH &&) WHERE (status = ''APPROVED'');
+    END IF;
+END';
+CREATE INDEX IF NOT EXISTS bookings_item_period_idx ON bookings USING gist (item_id, period);
+CREATE INDEX IF NOT EXISTS bookings_waiting_start_idx ON bookings (start_date, id) WHERE status = 'WAITING';
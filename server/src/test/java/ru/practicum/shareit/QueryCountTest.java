@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentSaveDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSaveDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryCountTest {
+    private final EntityManager em;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService requestService;
+
+    private Statistics statistics;
+    private UserDto owner;
+    private UserDto renter;
+    private List<ItemDto> items;
+    private List<ItemRequestDto> requests;
+    private BookingDto booking;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5})
+    void testBookingQueries(int size) {
+        seed(size);
+
+        assertStatements(1, () -> bookingService.getBookingById(owner.getId(), booking.getId()));
+        assertStatements(2, size, () -> bookingService.getUserBookings(renter.getId(), BookingState.ALL, 0, 10,
+                null).getBookings());
+        assertStatements(2, size, () -> bookingService.getUserBookings(renter.getId(), BookingState.WAITING, 0,
+                10, null).getBookings());
+        assertStatements(3, size * 2, () -> bookingService.getOwnerBookings(owner.getId(), BookingState.ALL, 0,
+                10, null).getBookings());
+        assertStatements(2, size, () -> bookingService.getOwnerBookings(owner.getId(), BookingState.PAST, 0,
+                10, null).getBookings());
+        assertStatements(2, () -> bookingService.getUserBookingSummary(renter.getId()));
+        assertStatements(2, () -> bookingService.getOwnerBookingSummary(owner.getId()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5})
+    void testItemQueries(int size) {
+        seed(size);
+
+        assertStatements(4, size * 2, () -> itemService.getAllUserItems(owner.getId()));
+        assertStatements(3, size * 2, () -> itemService.getAllUserItems(owner.getId()));
+        assertStatements(2, () -> itemService.getItemById(owner.getId(), items.getFirst().getId()));
+        assertStatements(1, size * 2, () -> itemService.searchItem("drill", 0, 10, null).getItems());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5})
+    void testRequestQueries(int size) {
+        seed(size);
+
+        assertStatements(2, size, () -> requestService.getAllRequests(owner.getId()));
+        assertStatements(2, 1, () -> requestService.getAllUserRequests(requests.getFirst().getRequester().getId()));
+        assertStatements(2, () -> requestService.getRequestById(requests.getFirst().getId()));
+        assertStatements(1, size * 2 + 2, userService::getAllUsers);
+    }
+
+    private void seed(int size) {
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        owner = userService.addUser(new UserSaveDto("Owner", "count-owner@gmail.com"));
+        renter = userService.addUser(new UserSaveDto("Renter", "count-renter@gmail.com"));
+        items = new ArrayList<>();
+        requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            UserDto booker = userService.addUser(new UserSaveDto("Booker", "count-booker" + i + "@gmail.com"));
+            ItemDto item = itemService.addItem(owner.getId(), new ItemSaveDto("Drill " + i, "Drill", true, null));
+            items.add(item);
+            booking = bookingService.addBooking(booker.getId(), bookingOf(item, date.minusDays(3)));
+            bookingService.approveBooking(owner.getId(), booking.getId(), true);
+            itemService.addComment(booker.getId(), item.getId(), new CommentSaveDto("Fine drill " + i));
+            bookingService.addBooking(renter.getId(), bookingOf(item, date.plusDays(3)));
+
+            UserDto requester = userService.addUser(new UserSaveDto("Requester",
+                    "count-requester" + i + "@gmail.com"));
+            ItemRequestDto request = requestService.addRequest(requester.getId(),
+                    new ItemRequestSaveDto("Need a drill " + i));
+            requests.add(request);
+            itemService.addItem(owner.getId(), new ItemSaveDto("Drill bit " + i, "Drill bit", true,
+                    request.getId()));
+        }
+    }
+
+    private BookingSaveDto bookingOf(ItemDto item, LocalDateTime start) {
+        BookingSaveDto bookingDto = new BookingSaveDto();
+        bookingDto.setItemId(item.getId());
+        bookingDto.setStart(start);
+        bookingDto.setEnd(start.plusDays(1));
+        return bookingDto;
+    }
+
+    private void assertStatements(long expected, Supplier<?> query) {
+        assertThat(count(query), equalTo(expected));
+    }
+
+    private void assertStatements(long expected, int rows, Supplier<? extends List<?>> query) {
+        List<List<?>> result = new ArrayList<>();
+        assertThat(count(() -> result.add(query.get())), equalTo(expected));
+        assertThat(result.getFirst(), hasSize(rows));
+    }
+
+    private long count(Supplier<?> query) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        query.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
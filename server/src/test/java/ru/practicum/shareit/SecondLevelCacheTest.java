@@ -0,0 +1,89 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookings;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSaveDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class SecondLevelCacheTest {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private UserDto owner;
+    private ItemDto item;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userService.addUser(new UserSaveDto("Owner", "cache-owner@gmail.com"));
+        // недоступная вещь не попадает в индексы поиска, хотя транзакция фиксируется
+        item = itemService.addItem(owner.getId(), new ItemSaveDto("Lamp", "Cached lamp", false, null));
+        // вставка с identity-ключом не кладёт сущность в кэш, её помещает туда первое чтение
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void testUserAndItemServedFromCache() {
+        statistics.clear();
+
+        UserDto user = userService.getUserById(owner.getId());
+        itemService.updateItem(owner.getId(), item.getId(), new ItemSaveDto(null, "Brighter lamp", null, null));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(user, equalTo(owner));
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), equalTo(1L));
+        assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), equalTo(1L));
+        assertThat(statements, equalTo(1L));
+        assertThat(itemRepository.findById(item.getId()).orElseThrow().getDescription(), equalTo("Brighter lamp"));
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "users")
+                .tag("result", "hit")
+                .functionCounter().count(), greaterThan(0.0));
+    }
+
+    @Test
+    void testOwnerItemsServedFromCache() {
+        itemService.getAllUserItems(owner.getId());
+        statistics.clear();
+
+        List<ItemDtoWithBookings> items = itemService.getAllUserItems(owner.getId());
+
+        assertThat(items, contains(hasProperty("id", equalTo(item.getId()))));
+        assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), equalTo(1L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+}
@@ -8,31 +8,36 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.util.HttpHeaderUtil;
+import ru.practicum.shareit.util.OptimisticLockRetry;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = BookingController.class)
 @AutoConfigureMockMvc
+@Import(OptimisticLockRetry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class BookingControllerTest {
     private final ObjectMapper mapper;
@@ -88,34 +93,36 @@ public class BookingControllerTest {
     void testGetUserBookings() throws Exception {
         List<BookingDto> bookings = List.of(bookingDto);
 
-        when(bookingService.getUserBookings(anyLong(), any(BookingState.class)))
-                .thenReturn(bookings);
+        when(bookingService.getUserBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), isNull()))
+                .thenReturn(new BookingPage(bookings, "Y3Vyc29y"));
 
         mvc.perform(get("/bookings")
                         .header(HttpHeaderUtil.USER_ID_HEADER, bookingDto.getBooker().getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaderUtil.NEXT_CURSOR_HEADER, "Y3Vyc29y"))
                 .andExpect(content().json(mapper.writeValueAsString(bookings)));
 
-        verify(bookingService, times(1)).getUserBookings(anyLong(), any(BookingState.class));
+        verify(bookingService, times(1)).getUserBookings(bookingDto.getBooker().getId(), BookingState.ALL, 0, 10, null);
     }
 
     @Test
     void testGetOwnerBookings() throws Exception {
         List<BookingDto> bookings = List.of(bookingDto);
 
-        when(bookingService.getOwnerBookings(anyLong(), any(BookingState.class)))
-                .thenReturn(bookings);
+        when(bookingService.getOwnerBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), isNull()))
+                .thenReturn(new BookingPage(bookings, "Y3Vyc29y"));
 
         mvc.perform(get("/bookings/owner")
                         .header(HttpHeaderUtil.USER_ID_HEADER, bookingDto.getBooker().getId())
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaderUtil.NEXT_CURSOR_HEADER, "Y3Vyc29y"))
                 .andExpect(content().json(mapper.writeValueAsString(bookings)));
 
-        verify(bookingService, times(1)).getOwnerBookings(anyLong(), any(BookingState.class));
+        verify(bookingService, times(1)).getOwnerBookings(bookingDto.getBooker().getId(), BookingState.ALL, 0, 10, null);
     }
 
     @Test
@@ -142,4 +149,75 @@ public class BookingControllerTest {
 
         verify(bookingService, times(1)).approveBooking(ownerId, bookingId, approved);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDecideBookings() throws Exception {
+        Long ownerId = 1L;
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        bookingDto.setStatus(BookingStatus.APPROVED);
+        List<BookingDecisionResultDto> results = List.of(new BookingDecisionResultDto(1L, bookingDto, null),
+                new BookingDecisionResultDto(2L, null, "Бронирование с id 2 не найдено"));
+
+        when(bookingService.decideBookings(eq(ownerId), eq(decisions)))
+                .thenReturn(results);
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(HttpHeaderUtil.USER_ID_HEADER, ownerId)
+                        .content(mapper.writeValueAsString(decisions))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(results)));
+
+        verify(bookingService, times(1)).decideBookings(ownerId, decisions);
+    }
+
+    @Test
+    void testGetOwnerCalendar() throws Exception {
+        List<BookingDto> bookings = List.of(bookingDto);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(30);
+
+        when(bookingService.getOwnerCalendar(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(),
+                isNull()))
+                .thenReturn(new BookingPage(bookings, "Y3Vyc29y"));
+
+        mvc.perform(get("/bookings/owner/calendar")
+                        .header(HttpHeaderUtil.USER_ID_HEADER, bookingDto.getBooker().getId())
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaderUtil.NEXT_CURSOR_HEADER, "Y3Vyc29y"))
+                .andExpect(content().json(mapper.writeValueAsString(bookings)));
+
+        verify(bookingService, times(1)).getOwnerCalendar(bookingDto.getBooker().getId(), from, to, 10, null);
+    }
+
+    @Test
+    void testGetBookingSummaries() throws Exception {
+        Long userId = 1L;
+        BookingSummaryDto bookerSummary = new BookingSummaryDto(4, 1, 1, 2, 3, 1);
+        BookingSummaryDto ownerSummary = new BookingSummaryDto(2, 0, 1, 1, 1, 0);
+
+        when(bookingService.getUserBookingSummary(userId))
+                .thenReturn(bookerSummary);
+        when(bookingService.getOwnerBookingSummary(userId))
+                .thenReturn(ownerSummary);
+
+        mvc.perform(get("/bookings/summary")
+                        .header(HttpHeaderUtil.USER_ID_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(bookerSummary)));
+        mvc.perform(get("/bookings/owner/summary")
+                        .header(HttpHeaderUtil.USER_ID_HEADER, userId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(ownerSummary)));
+
+        verify(bookingService, never()).getBookingById(any(), any());
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingExpiryJob;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingExpiryJobTest {
+    private final BookingExpiryJob bookingExpiryJob;
+    private final BookingService bookingService;
+    private final BookingFixtures fixtures;
+
+    @Test
+    void testExpireStaleWaitingBookings() {
+        BookingFixtures.Scene scene = fixtures.addScene("expiry");
+        Long bookerId = scene.booker().getId();
+        LocalDateTime date = LocalDateTime.now();
+        BookingDto stale = addBooking(scene, date.minusDays(1));
+        BookingDto approved = addBooking(scene, date.minusDays(10));
+        bookingService.approveBooking(scene.owner().getId(), approved.getId(), true);
+        BookingDto future = addBooking(scene, date.plusDays(1));
+
+        int expired = bookingExpiryJob.expire();
+
+        assertThat(expired, greaterThanOrEqualTo(1));
+        assertThat(bookingService.getBookingById(bookerId, stale.getId()).getStatus(),
+                equalTo(BookingStatus.REJECTED));
+        assertThat(bookingService.getBookingById(bookerId, approved.getId()).getStatus(),
+                equalTo(BookingStatus.APPROVED));
+        assertThat(bookingService.getBookingById(bookerId, future.getId()).getStatus(),
+                equalTo(BookingStatus.WAITING));
+    }
+
+    private BookingDto addBooking(BookingFixtures.Scene scene, LocalDateTime start) {
+        return fixtures.addBooking(scene, start, start.plusDays(3));
+    }
+}
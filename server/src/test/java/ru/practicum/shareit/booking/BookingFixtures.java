@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSaveDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class BookingFixtures {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public Scene addScene(String prefix) {
+        UserDto owner = addUser("Owner", prefix + "-owner@gmail.com");
+        UserDto booker = addUser("Booker", prefix + "-booker@gmail.com");
+        return new Scene(owner, booker, addItem(owner, "Tent"));
+    }
+
+    public UserDto addUser(String name, String email) {
+        return userService.addUser(new UserSaveDto(name, email));
+    }
+
+    public ItemDto addItem(UserDto owner, String name) {
+        return itemService.addItem(owner.getId(), new ItemSaveDto(name, "Booking test", true, null));
+    }
+
+    public BookingDto addBooking(Scene scene, LocalDateTime start, LocalDateTime end) {
+        return addBooking(scene.booker(), scene.item().getId(), start, end);
+    }
+
+    public BookingDto addBooking(UserDto booker, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(booker.getId(), new BookingSaveDto(itemId, start, end));
+    }
+
+    public List<Long> insertItems(Long ownerId, int count) {
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new Object[]{"Item " + i, "Benchmark item", true, ownerId});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, available, owner_id) values (?, ?, ?, ?)",
+                items);
+        return jdbcTemplate.queryForList("select id from items where owner_id = ? order by id", Long.class,
+                ownerId);
+    }
+
+    // бронирования по часу подряд, по кругу по вещам
+    public void insertBookings(Long bookerId, List<Long> itemIds, int count, LocalDateTime start) {
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long itemId = itemIds.get(i % itemIds.size());
+            bookings.add(new Object[]{bookerId, itemId, Timestamp.valueOf(start.plusHours(i)),
+                    Timestamp.valueOf(start.plusHours(i + 1)), "WAITING"});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (booker_id, item_id, start_date, end_date, status) " +
+                "values (?, ?, ?, ?, ?)", bookings);
+    }
+
+    public record Scene(UserDto owner, UserDto booker, ItemDto item) {
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Slf4j
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingLockStripesTest {
+    private static final int THREADS = 8;
+    private static final int HOT_BOOKINGS = 64;
+    private static final int COLD_ITEMS = 32;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingFixtures fixtures;
+
+    private final List<Long> itemIds = new ArrayList<>();
+    private UserDto owner;
+    private UserDto booker;
+    private LocalDateTime start;
+
+    @BeforeEach
+    public void setUp() {
+        owner = fixtures.addUser("Owner", "stress-owner@gmail.com");
+        booker = fixtures.addUser("Booker", "stress-booker@gmail.com");
+        start = LocalDateTime.of(2030, 3, 1, 10, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookingRepository.deleteAll(bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .toList());
+        itemRepository.deleteAllById(itemIds);
+        userRepository.deleteAllById(List.of(owner.getId(), booker.getId()));
+    }
+
+    @Test
+    void testHotItemApprovesSingleOverlappingBooking() throws InterruptedException {
+        ItemDto hotItem = addItem("Stress tent");
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < HOT_BOOKINGS; i++) {
+            bookings.add(addBooking(hotItem.getId()));
+        }
+
+        Result result = approveConcurrently(bookings);
+        log.info("Горячая вещь: {} подтверждений за {} мс, {} оп/с", bookings.size(), result.millis(),
+                result.throughput());
+
+        assertThat(result.approved(), equalTo(1));
+        assertThat(result.conflicts(), equalTo(HOT_BOOKINGS - 1));
+        assertThat(countApproved().get(hotItem.getId()), equalTo(1L));
+    }
+
+    @Test
+    void testColdItemsApproveInParallel() throws InterruptedException {
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < COLD_ITEMS; i++) {
+            ItemDto item = addItem("Stress tent " + i);
+            bookings.add(addBooking(item.getId()));
+            bookings.add(addBooking(item.getId()));
+        }
+
+        Result result = approveConcurrently(bookings);
+        log.info("Холодные вещи: {} подтверждений за {} мс, {} оп/с", bookings.size(), result.millis(),
+                result.throughput());
+
+        Map<Long, Long> approved = countApproved();
+        assertThat(result.approved(), equalTo(COLD_ITEMS));
+        assertThat(result.conflicts(), equalTo(COLD_ITEMS));
+        assertThat(approved.keySet(), hasSize(COLD_ITEMS));
+        assertThat(approved.values(), everyItem(equalTo(1L)));
+    }
+
+    private Result approveConcurrently(List<BookingDto> bookings) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (BookingDto booking : bookings) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.approveBooking(owner.getId(), booking.getId(), true);
+                    approved.incrementAndGet();
+                } catch (BookingOverlapException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        ready.countDown();
+        for (Future<?> future : futures) {
+            try {
+                future.get(1, TimeUnit.MINUTES);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new AssertionError(e);
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+        return new Result(approved.get(), conflicts.get(), bookings.size(), elapsed);
+    }
+
+    private Map<Long, Long> countApproved() {
+        return bookingRepository.findAll().stream()
+                .filter(booking -> itemIds.contains(booking.getItem().getId()))
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.counting()));
+    }
+
+    private ItemDto addItem(String name) {
+        ItemDto item = fixtures.addItem(owner, name);
+        itemIds.add(item.getId());
+        return item;
+    }
+
+    private BookingDto addBooking(Long itemId) {
+        return fixtures.addBooking(booker, itemId, start, start.plusDays(2));
+    }
+
+    private record Result(int approved, int conflicts, int operations, long nanos) {
+        long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        long throughput() {
+            return operations * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+        }
+    }
+}
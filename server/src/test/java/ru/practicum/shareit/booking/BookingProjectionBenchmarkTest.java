@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@Slf4j
+@Tag("benchmark")
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingProjectionBenchmarkTest {
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 100_000;
+    private static final int ITERATIONS = 200;
+    private static final int PAGE_SIZE = 100;
+
+    private final BookingService bookingService;
+    private final BookingMapper bookingMapper;
+    private final BookingFixtures fixtures;
+    private final EntityManager em;
+
+    private UserDto booker;
+
+    @BeforeEach
+    public void setUp() {
+        UserDto owner = fixtures.addUser("Owner", "projection-owner@gmail.com");
+        booker = fixtures.addUser("Booker", "projection-booker@gmail.com");
+        List<Long> itemIds = fixtures.insertItems(owner.getId(), ITEMS);
+        fixtures.insertBookings(booker.getId(), itemIds, BOOKINGS, LocalDateTime.of(2030, 1, 1, 12, 0));
+    }
+
+    @Test
+    void testProjectionAgainstEntities() {
+        List<BookingDto> entities = measure("entities", () -> em.createQuery("select b from Booking b " +
+                        "join fetch b.booker join fetch b.item " +
+                        "where b.booker.id = :bookerId " +
+                        "order by b.start desc, b.id desc", Booking.class)
+                .setParameter("bookerId", booker.getId())
+                .setMaxResults(PAGE_SIZE)
+                .getResultList().stream()
+                .map(bookingMapper::mapToBookingDto)
+                .toList());
+        List<BookingDto> projected = measure("projection", () -> bookingService
+                .getUserBookings(booker.getId(), BookingState.ALL, 0, PAGE_SIZE, null).getBookings());
+
+        assertThat(projected, hasSize(PAGE_SIZE));
+        assertThat(projected, equalTo(entities));
+    }
+
+    private <T> T measure(String name, Supplier<T> query) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        T result = query.get();
+        em.clear();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            result = query.get();
+            em.clear();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        log.info("{}: {} бронирований, страница {}, {} мкс и {} КиБ на запрос", name, BOOKINGS, PAGE_SIZE,
+                TimeUnit.NANOSECONDS.toMicros(elapsed) / ITERATIONS, allocated / ITERATIONS / 1024);
+        return result;
+    }
+}
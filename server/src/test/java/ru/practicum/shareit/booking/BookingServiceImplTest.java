@@ -8,16 +8,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.OwnerBookingCalendar;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.ItemUnavailableException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemSaveDto;
 import ru.practicum.shareit.item.service.ItemService;
@@ -26,6 +33,8 @@ import ru.practicum.shareit.user.dto.UserSaveDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -43,6 +52,7 @@ public class BookingServiceImplTest {
     private final BookingService bookingService;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingRepository bookingRepository;
 
     private UserSaveDto userDto1;
     private UserSaveDto userDto2;
@@ -155,7 +165,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getUserBookings(user2.getId(), BookingState.ALL);
+        List<BookingDto> targetBookings = bookingService
+                .getUserBookings(user2.getId(), BookingState.ALL, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -178,7 +189,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getUserBookings(user2.getId(), BookingState.CURRENT);
+        List<BookingDto> targetBookings = bookingService
+                .getUserBookings(user2.getId(), BookingState.CURRENT, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -196,13 +208,15 @@ public class BookingServiceImplTest {
         ItemDto item = itemService.addItem(user1.getId(), itemDto);
 
         bookingDto.setItemId(item.getId());
-        bookingDto.setStart(LocalDateTime.now().minusDays(10));
-        bookingDto.setEnd(LocalDateTime.now().minusDays(1));
+        // список читается проекцией из базы, а колонка TIMESTAMP хранит время с точностью до микросекунд
+        bookingDto.setStart(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusDays(10));
+        bookingDto.setEnd(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusDays(1));
         BookingDto addedBooking = bookingService.addBooking(user2.getId(), bookingDto);
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getUserBookings(user2.getId(), BookingState.PAST);
+        List<BookingDto> targetBookings = bookingService
+                .getUserBookings(user2.getId(), BookingState.PAST, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -224,7 +238,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getUserBookings(user2.getId(), BookingState.FUTURE);
+        List<BookingDto> targetBookings = bookingService
+                .getUserBookings(user2.getId(), BookingState.FUTURE, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -246,7 +261,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getUserBookings(user2.getId(), BookingState.WAITING);
+        List<BookingDto> targetBookings = bookingService
+                .getUserBookings(user2.getId(), BookingState.WAITING, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -270,7 +286,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getUserBookings(user2.getId(), BookingState.REJECTED);
+        List<BookingDto> targetBookings = bookingService
+                .getUserBookings(user2.getId(), BookingState.REJECTED, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -292,7 +309,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getOwnerBookings(user1.getId(), BookingState.ALL);
+        List<BookingDto> targetBookings = bookingService
+                .getOwnerBookings(user1.getId(), BookingState.ALL, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -315,7 +333,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getOwnerBookings(user1.getId(), BookingState.CURRENT);
+        List<BookingDto> targetBookings = bookingService
+                .getOwnerBookings(user1.getId(), BookingState.CURRENT, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -333,13 +352,15 @@ public class BookingServiceImplTest {
         ItemDto item = itemService.addItem(user1.getId(), itemDto);
 
         bookingDto.setItemId(item.getId());
-        bookingDto.setStart(LocalDateTime.now().minusDays(10));
-        bookingDto.setEnd(LocalDateTime.now().minusDays(1));
+        // список читается проекцией из базы, а колонка TIMESTAMP хранит время с точностью до микросекунд
+        bookingDto.setStart(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusDays(10));
+        bookingDto.setEnd(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusDays(1));
         BookingDto addedBooking = bookingService.addBooking(user2.getId(), bookingDto);
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getOwnerBookings(user1.getId(), BookingState.PAST);
+        List<BookingDto> targetBookings = bookingService
+                .getOwnerBookings(user1.getId(), BookingState.PAST, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -361,7 +382,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getOwnerBookings(user1.getId(), BookingState.FUTURE);
+        List<BookingDto> targetBookings = bookingService
+                .getOwnerBookings(user1.getId(), BookingState.FUTURE, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -383,7 +405,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getOwnerBookings(user1.getId(), BookingState.WAITING);
+        List<BookingDto> targetBookings = bookingService
+                .getOwnerBookings(user1.getId(), BookingState.WAITING, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -407,7 +430,8 @@ public class BookingServiceImplTest {
 
         List<BookingDto> sourceBookings = List.of(addedBooking);
 
-        List<BookingDto> targetBookings = bookingService.getOwnerBookings(user1.getId(), BookingState.REJECTED);
+        List<BookingDto> targetBookings = bookingService
+                .getOwnerBookings(user1.getId(), BookingState.REJECTED, 0, 10, null).getBookings();
 
         assertThat(targetBookings, hasSize(sourceBookings.size()));
         assertThat(targetBookings.getFirst(), allOf(
@@ -422,7 +446,7 @@ public class BookingServiceImplTest {
     void testGetOwnerBookingsWithNoItems() {
         UserDto user = userService.addUser(userDto1);
 
-        assertThrows(NotFoundException.class, () -> bookingService.getOwnerBookings(user.getId(), BookingState.ALL));
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerBookings(user.getId(), BookingState.ALL, 0, 10, null));
     }
 
     @Test
@@ -491,4 +515,164 @@ public class BookingServiceImplTest {
         assertThrows(ForbiddenException.class,
                 () -> bookingService.approveBooking(NONEXISTENT_ID, addedBooking.getId(), true));
     }
+
+    @Test
+    void testDecideBookings() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto item = itemService.addItem(owner.getId(), itemDto);
+        ItemDto bookerItem = itemService.addItem(booker.getId(), itemDto);
+        bookingDto.setItemId(item.getId());
+        BookingDto approved = bookingService.addBooking(booker.getId(), bookingDto);
+        BookingDto overlapping = bookingService.addBooking(booker.getId(), bookingDto);
+        BookingDto rejected = bookingService.addBooking(booker.getId(), bookingDto);
+        bookingDto.setItemId(bookerItem.getId());
+        BookingDto foreign = bookingService.addBooking(owner.getId(), bookingDto);
+
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(owner.getId(), List.of(
+                new BookingDecisionDto(approved.getId(), true),
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(foreign.getId(), true),
+                new BookingDecisionDto(NONEXISTENT_ID, true),
+                new BookingDecisionDto(overlapping.getId(), null),
+                new BookingDecisionDto(null, false)));
+
+        assertThat(results, contains(
+                allOf(hasProperty("bookingId", equalTo(approved.getId())),
+                        hasProperty("booking", hasProperty("status", equalTo(BookingStatus.APPROVED))),
+                        hasProperty("error", nullValue())),
+                allOf(hasProperty("bookingId", equalTo(overlapping.getId())),
+                        hasProperty("booking", nullValue()),
+                        hasProperty("error", containsString("в этом же запросе"))),
+                allOf(hasProperty("bookingId", equalTo(rejected.getId())),
+                        hasProperty("booking", hasProperty("status", equalTo(BookingStatus.REJECTED)))),
+                allOf(hasProperty("bookingId", equalTo(foreign.getId())),
+                        hasProperty("error", notNullValue())),
+                allOf(hasProperty("bookingId", equalTo(NONEXISTENT_ID)),
+                        hasProperty("error", notNullValue())),
+                allOf(hasProperty("bookingId", equalTo(overlapping.getId())),
+                        hasProperty("error", equalTo("Решение по бронированию должно быть указано"))),
+                allOf(hasProperty("bookingId", nullValue()),
+                        hasProperty("error", notNullValue()))));
+        assertThat(bookingService.getBookingById(owner.getId(), overlapping.getId()).getStatus(),
+                equalTo(BookingStatus.WAITING));
+        assertThat(bookingService.getBookingById(owner.getId(), foreign.getId()).getStatus(),
+                equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void testGetBookingSummary() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto item = itemService.addItem(owner.getId(), itemDto);
+        LocalDateTime date = LocalDateTime.now();
+        bookingDto.setItemId(item.getId());
+        for (int days : List.of(-20, -1, 10, 20)) {
+            bookingDto.setStart(date.plusDays(days));
+            bookingDto.setEnd(date.plusDays(days + 3));
+            BookingDto booking = bookingService.addBooking(booker.getId(), bookingDto);
+            if (days == 10) {
+                bookingService.approveBooking(owner.getId(), booking.getId(), false);
+            }
+        }
+
+        BookingSummaryDto bookerSummary = bookingService.getUserBookingSummary(booker.getId());
+        BookingSummaryDto ownerSummary = bookingService.getOwnerBookingSummary(owner.getId());
+
+        assertThat(bookerSummary, equalTo(new BookingSummaryDto(4, 1, 1, 2, 3, 1)));
+        assertThat(ownerSummary, equalTo(bookerSummary));
+        assertThrows(NotFoundException.class, () -> bookingService.getOwnerBookingSummary(booker.getId()));
+    }
+
+    @Test
+    void testGetOwnerCalendar() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto tent = itemService.addItem(owner.getId(), itemDto);
+        ItemDto bike = itemService.addItem(owner.getId(), itemDto);
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> expected = new ArrayList<>();
+        for (int days : List.of(1, 2, 3, 4, 7, 9, 30)) {
+            bookingDto.setItemId(days % 2 == 0 ? bike.getId() : tent.getId());
+            bookingDto.setStart(date.plusDays(days));
+            bookingDto.setEnd(date.plusDays(days).plusHours(12));
+            expected.add(bookingService.addBooking(booker.getId(), bookingDto).getId());
+        }
+
+        BookingPage firstPage = bookingService.getOwnerCalendar(owner.getId(), date, date.plusDays(10), 4, null);
+        BookingPage secondPage = bookingService.getOwnerCalendar(owner.getId(), date, date.plusDays(10), 4,
+                firstPage.getNextCursor());
+
+        assertThat(firstPage.getBookings().stream().map(BookingDto::getId).toList(),
+                equalTo(expected.subList(0, 4)));
+        assertThat(secondPage.getBookings().stream().map(BookingDto::getId).toList(),
+                equalTo(expected.subList(4, 6)));
+        assertThat(secondPage.getNextCursor(), nullValue());
+        assertThrows(ValidationException.class,
+                () -> bookingService.getOwnerCalendar(owner.getId(), date, date.minusDays(1), 4, null));
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getOwnerCalendar(booker.getId(), date, date.plusDays(10), 4, null));
+    }
+
+    @Test
+    void testOwnerCalendarSingleQueryMatchesMerge() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        List<Long> itemIds = new ArrayList<>();
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            ItemDto item = itemService.addItem(owner.getId(), itemDto);
+            itemIds.add(item.getId());
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(date.plusDays(5 - i));
+            bookingDto.setEnd(date.plusDays(6 - i));
+            bookingService.addBooking(booker.getId(), bookingDto);
+        }
+        OwnerBookingCalendar merged = new OwnerBookingCalendar(bookingRepository, 2, itemIds.size());
+        OwnerBookingCalendar single = new OwnerBookingCalendar(bookingRepository, 2, 1);
+
+        List<Booking> expected = merged.merge(owner.getId(), itemIds, date, date.plusDays(10),
+                OwnerBookingCalendar.first(), 4);
+
+        assertThat(expected, hasSize(4));
+        assertThat(single.merge(owner.getId(), itemIds, date, date.plusDays(10), OwnerBookingCalendar.first(), 4),
+                equalTo(expected));
+    }
+
+    @Test
+    void testGetBookingsPages() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto item = itemService.addItem(owner.getId(), itemDto);
+        bookingDto.setItemId(item.getId());
+        BookingDto first = bookingService.addBooking(booker.getId(), bookingDto);
+        BookingDto second = bookingService.addBooking(booker.getId(), bookingDto);
+        bookingDto.setStart(bookingDto.getStart().minusDays(1));
+        BookingDto third = bookingService.addBooking(booker.getId(), bookingDto);
+
+        BookingPage firstPage = bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, 2, null);
+        BookingPage secondPage = bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, 2,
+                firstPage.getNextCursor());
+        BookingPage ownerPage = bookingService.getOwnerBookings(owner.getId(), BookingState.WAITING, 2, 2, null);
+        BookingPage offsetPage = bookingService.getUserBookings(booker.getId(), BookingState.ALL, 1, 2, null);
+
+        assertThat(firstPage.getBookings().stream().map(BookingDto::getId).toList(),
+                contains(second.getId(), first.getId()));
+        assertThat(secondPage.getBookings().stream().map(BookingDto::getId).toList(), contains(third.getId()));
+        assertThat(secondPage.getNextCursor(), nullValue());
+        assertThat(ownerPage.getBookings().stream().map(BookingDto::getId).toList(), contains(third.getId()));
+        assertThat(offsetPage.getBookings().stream().map(BookingDto::getId).toList(),
+                contains(first.getId(), third.getId()));
+    }
+
+    @Test
+    void testGetBookingsInvalidPage() {
+        UserDto booker = userService.addUser(userDto2);
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(booker.getId(), BookingState.ALL, -1, 10, null));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getUserBookings(booker.getId(), BookingState.ALL, 0, 10, "bad"));
+    }
 }
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingTimelineStore;
+import ru.practicum.shareit.exception.BookingOverlapException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingTimelineStoreTest {
+    private final BookingTimelineStore bookingTimelineStore;
+    private final BookingRepository bookingRepository;
+    private final BookingService bookingService;
+    private final BookingFixtures fixtures;
+
+    private BookingFixtures.Scene scene;
+    private Long ownerId;
+    private Long itemId;
+    private LocalDateTime date;
+
+    @BeforeEach
+    public void setUp() {
+        scene = fixtures.addScene("timeline");
+        ownerId = scene.owner().getId();
+        itemId = scene.item().getId();
+        date = LocalDateTime.of(2030, 1, 10, 12, 0);
+    }
+
+    @Test
+    void testFindFree() {
+        fixtures.addBooking(scene, date.minusDays(8), date.minusDays(6));
+        BookingDto approved = fixtures.addBooking(scene, date.plusDays(5), date.plusDays(6));
+        bookingService.approveBooking(ownerId, approved.getId(), true);
+        BookingDto rejected = fixtures.addBooking(scene, date.plusDays(10), date.plusDays(12));
+        bookingService.approveBooking(ownerId, rejected.getId(), false);
+
+        Long idleId = fixtures.addItem(scene.owner(), "Idle tent").getId();
+        List<Long> itemIds = List.of(itemId, idleId);
+
+        assertThat(bookingTimelineStore.findFree(itemIds, date.minusDays(7), date), contains(idleId));
+        assertThat(bookingTimelineStore.findFree(itemIds, date, date.plusDays(5)),
+                containsInAnyOrder(itemId, idleId));
+        assertThat(bookingTimelineStore.findFree(itemIds, date.plusDays(4), date.plusDays(7)), contains(idleId));
+        assertThat(bookingTimelineStore.findFree(itemIds, date.plusDays(6), date.plusDays(13)),
+                containsInAnyOrder(itemId, idleId));
+    }
+
+    @Test
+    void testApproveRejectsOverlap() {
+        BookingDto first = fixtures.addBooking(scene, date, date.plusDays(3));
+        BookingDto second = fixtures.addBooking(scene, date.plusDays(2), date.plusDays(5));
+        BookingDto adjacent = fixtures.addBooking(scene, date.plusDays(3), date.plusDays(4));
+
+        bookingService.approveBooking(ownerId, first.getId(), true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approveBooking(ownerId, second.getId(), true));
+        assertThrows(BookingOverlapException.class,
+                () -> fixtures.addBooking(scene, date.plusDays(1), date.plusDays(2)));
+        assertThat(bookingService.approveBooking(ownerId, adjacent.getId(), true).getStatus(),
+                equalTo(BookingStatus.APPROVED));
+    }
+
+    @Test
+    void testApproveChecksOverlapInDatabase() {
+        BookingDto first = fixtures.addBooking(scene, date, date.plusDays(3));
+        BookingDto second = fixtures.addBooking(scene, date.plusDays(2), date.plusDays(5));
+        bookingTimelineStore.findFree(List.of(itemId), date.minusDays(1), date);
+
+        bookingRepository.updateStatus(List.of(first.getId()), BookingStatus.APPROVED);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approveBooking(ownerId, second.getId(), true));
+    }
+
+    @Test
+    void testLoadsFromTableOnMiss() {
+        BookingDto future = fixtures.addBooking(scene, date.plusDays(5), date.plusDays(6));
+        bookingService.approveBooking(ownerId, future.getId(), true);
+        BookingTimelineStore cold = new BookingTimelineStore(bookingRepository, 100, Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+
+        assertThat(cold.findFree(List.of(itemId), date.plusDays(5), date.plusDays(6)), empty());
+        assertThat(cold.findFree(List.of(itemId), date, date.plusDays(5)), contains(itemId));
+    }
+}
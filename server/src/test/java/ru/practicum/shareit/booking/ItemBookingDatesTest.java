@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingLockStripes;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingDates;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemBookingDatesTest {
+    private final ItemBookingDates itemBookingDates;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingLockStripes bookingLockStripes;
+    private final PlatformTransactionManager transactionManager;
+    private final BookingFixtures fixtures;
+
+    private BookingFixtures.Scene scene;
+    private Long itemId;
+    private LocalDateTime date;
+
+    @BeforeEach
+    public void setUp() {
+        scene = fixtures.addScene("dates");
+        itemId = scene.item().getId();
+        date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void testBookingDatesMaintainedOnWrite() {
+        BookingDto past = addBooking(date.minusDays(10));
+        BookingDto next = addBooking(date.plusDays(5));
+        addBooking(date.plusDays(15));
+        bookingService.approveBooking(scene.owner().getId(), next.getId(), true);
+
+        Item cached = itemRepository.findById(itemId).orElseThrow();
+
+        assertThat(cached.getLastBookingId(), equalTo(past.getId()));
+        assertThat(cached.getLastBookingStart(), equalTo(date.minusDays(10)));
+        assertThat(cached.getNextBookingId(), equalTo(next.getId()));
+        assertThat(cached.getNextBookingStart(), equalTo(date.plusDays(5)));
+        assertThat(itemBookingDates.check(), not(hasItem(itemId)));
+    }
+
+    @Test
+    void testSweepMovesStartedNextBooking() {
+        Booking started = new Booking();
+        started.setItem(itemRepository.findById(itemId).orElseThrow());
+        started.setBooker(userRepository.findById(scene.booker().getId()).orElseThrow());
+        started.setStart(date.minusHours(1));
+        started.setEnd(date.plusDays(1));
+        started.setStatus(BookingStatus.APPROVED);
+        bookingRepository.save(started);
+        Item cached = itemRepository.findById(itemId).orElseThrow();
+        cached.setNextBookingId(started.getId());
+        cached.setNextBookingStart(started.getStart());
+
+        itemBookingDates.sweep();
+
+        assertThat(cached.getNextBookingId(), nullValue());
+        assertThat(cached.getNextBookingStart(), nullValue());
+        assertThat(cached.getLastBookingId(), nullValue());
+    }
+
+    @Test
+    void testCheckReportsDivergedItem() {
+        addBooking(date.plusDays(5));
+        Item cached = itemRepository.findById(itemId).orElseThrow();
+        cached.setNextBookingStart(date.plusDays(7));
+
+        assertThat(itemBookingDates.check(), hasItem(itemId));
+        assertThat(cached.getNextBookingStart(), equalTo(date.plusDays(5)));
+    }
+
+    @Test
+    void testFirstSweepChecksAllItems() {
+        BookingDto next = addBooking(date.plusDays(5));
+        Item cached = itemRepository.findById(itemId).orElseThrow();
+        cached.setNextBookingId(null);
+        cached.setNextBookingStart(null);
+        ItemBookingDates restarted = new ItemBookingDates(bookingRepository, itemRepository, bookingLockStripes,
+                transactionManager, new SimpleMeterRegistry(), 500);
+
+        restarted.sweep();
+
+        assertThat(cached.getNextBookingId(), equalTo(next.getId()));
+        assertThat(cached.getNextBookingStart(), equalTo(date.plusDays(5)));
+    }
+
+    private BookingDto addBooking(LocalDateTime start) {
+        return fixtures.addBooking(scene, start, start.plusDays(2));
+    }
+}
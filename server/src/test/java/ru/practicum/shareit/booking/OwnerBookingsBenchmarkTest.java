@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+
+@Slf4j
+@Tag("benchmark")
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class OwnerBookingsBenchmarkTest {
+    private static final int ITEMS = 10_000;
+    private static final int ITERATIONS = 50;
+    private static final int PAGE_SIZE = 20;
+
+    private final BookingService bookingService;
+    private final BookingFixtures fixtures;
+    private final EntityManager em;
+
+    private UserDto owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = fixtures.addUser("Owner", "benchmark-owner@gmail.com");
+        UserDto booker = fixtures.addUser("Booker", "benchmark-booker@gmail.com");
+        List<Long> itemIds = fixtures.insertItems(owner.getId(), ITEMS);
+        fixtures.insertBookings(booker.getId(), itemIds, ITEMS, LocalDateTime.of(2030, 1, 1, 12, 0));
+    }
+
+    @Test
+    void testOwnerJoinAgainstItemIdList() {
+        List<Long> joined = measure("join on owner", () -> bookingService
+                .getOwnerBookings(owner.getId(), BookingState.ALL, 0, PAGE_SIZE, null).getBookings().stream()
+                .map(BookingDto::getId)
+                .toList());
+        List<Long> listed = measure("IN item id list", () -> {
+            List<Long> itemIds = em.createQuery("select i.id from Item i where i.owner.id = :ownerId", Long.class)
+                    .setParameter("ownerId", owner.getId())
+                    .getResultList();
+            return em.createQuery("select b from Booking b where b.item.id in :itemIds " +
+                            "order by b.start desc, b.id desc", Booking.class)
+                    .setParameter("itemIds", itemIds)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList().stream()
+                    .map(Booking::getId)
+                    .toList();
+        });
+
+        assertThat(joined, hasSize(PAGE_SIZE));
+        assertThat(joined, contains(listed.toArray()));
+    }
+
+    private <T> T measure(String name, Supplier<T> query) {
+        T result = query.get();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            result = query.get();
+            em.clear();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        log.info("{}: {} вещей, {} мкс на запрос", name, ITEMS,
+                TimeUnit.NANOSECONDS.toMicros(elapsed) / ITERATIONS);
+        return result;
+    }
+}
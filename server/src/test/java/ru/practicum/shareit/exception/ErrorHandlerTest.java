@@ -7,15 +7,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentSaveDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.util.HttpHeaderUtil;
+import ru.practicum.shareit.util.OptimisticLockRetry;
 
 import java.time.LocalDateTime;
 
@@ -26,6 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(controllers = {BookingController.class, ItemController.class})
 @AutoConfigureMockMvc
+@Import(OptimisticLockRetry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ErrorHandlerTest {
     private static final Long NONEXISTENT_USER_ID = 1L;
@@ -106,6 +112,53 @@ class ErrorHandlerTest {
                 .andExpect(jsonPath("$.error").value("Бронирование уже подтверждено"));
     }
 
+    @Test
+    void testHandleBookingOverlap() throws Exception {
+        when(bookingService.approveBooking(NONEXISTENT_USER_ID, NONEXISTENT_BOOKING_ID, true))
+                .thenThrow(new BookingOverlapException("Вещь уже забронирована на выбранные даты"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", NONEXISTENT_BOOKING_ID)
+                        .header(HttpHeaderUtil.USER_ID_HEADER, NONEXISTENT_USER_ID))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Вещь уже забронирована на выбранные даты"));
+    }
+
+    @Test
+    void testHandleDataIntegrityViolation() throws Exception {
+        when(bookingService.approveBooking(NONEXISTENT_USER_ID, NONEXISTENT_BOOKING_ID, true))
+                .thenThrow(new DataIntegrityViolationException("fk_bookings_booker"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", NONEXISTENT_BOOKING_ID)
+                        .header(HttpHeaderUtil.USER_ID_HEADER, NONEXISTENT_USER_ID))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void testHandleOptimisticLockingFailureAfterRetries() throws Exception {
+        when(bookingService.approveBooking(NONEXISTENT_USER_ID, NONEXISTENT_BOOKING_ID, true))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, NONEXISTENT_BOOKING_ID));
+
+        mockMvc.perform(patch("/bookings/{bookingId}?approved=true", NONEXISTENT_BOOKING_ID)
+                        .header(HttpHeaderUtil.USER_ID_HEADER, NONEXISTENT_USER_ID))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error")
+                        .value("Данные были изменены параллельным запросом, повторите попытку"));
+
+        verify(bookingService, times(3)).approveBooking(NONEXISTENT_USER_ID, NONEXISTENT_BOOKING_ID, true);
+    }
+
+    @Test
+    void testHandleValidation() throws Exception {
+        when(itemService.searchItem("harp", 0, 10, "bad"))
+                .thenThrow(new ValidationException("Некорректный курсор поиска bad"));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "harp")
+                        .param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Некорректный курсор поиска bad"));
+    }
+
     @Test
     void testHandle() throws Exception {
         when(bookingService.getBookingById(NONEXISTENT_USER_ID, NONEXISTENT_BOOKING_ID))
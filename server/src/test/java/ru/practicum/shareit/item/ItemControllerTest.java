@@ -9,26 +9,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.util.HttpHeaderUtil;
+import ru.practicum.shareit.util.OptimisticLockRetry;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
 @AutoConfigureMockMvc
+@Import(OptimisticLockRetry.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemControllerTest {
     private final ObjectMapper mapper;
@@ -130,17 +132,103 @@ public class ItemControllerTest {
     void testSearchItem() throws Exception {
         List<ItemDto> items = List.of(itemDto);
 
-        when(itemService.searchItem(anyString()))
-                .thenReturn(items);
+        when(itemService.searchItem(anyString(), anyInt(), anyInt(), isNull()))
+                .thenReturn(new ItemSearchPage(items, "Mjox"));
+
+        mvc.perform(get("/items/search")
+                        .param("text", itemDto.getName())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaderUtil.NEXT_CURSOR_HEADER, "Mjox"))
+                .andExpect(content().json(mapper.writeValueAsString(items)));
+
+        verify(itemService, times(1)).searchItem(itemDto.getName(), 0, 10, null);
+    }
+
+    @Test
+    void testSearchItemLastPage() throws Exception {
+        List<ItemDto> items = List.of(itemDto);
+
+        when(itemService.searchItem(anyString(), anyInt(), anyInt(), anyString()))
+                .thenReturn(new ItemSearchPage(items, null));
 
         mvc.perform(get("/items/search")
                         .param("text", itemDto.getName())
+                        .param("size", "5")
+                        .param("cursor", "Mjox")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaderUtil.NEXT_CURSOR_HEADER))
                 .andExpect(content().json(mapper.writeValueAsString(items)));
 
-        verify(itemService, times(1)).searchItem(anyString());
+        verify(itemService, times(1)).searchItem(itemDto.getName(), 0, 5, "Mjox");
+    }
+
+    @Test
+    void testSearchFreeItems() throws Exception {
+        List<ItemDto> items = List.of(itemDto);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime end = start.plusDays(2);
+
+        when(itemService.searchItem(anyString(), any(LocalDateTime.class), any(LocalDateTime.class), anyInt(),
+                anyInt(), isNull()))
+                .thenReturn(new ItemSearchPage(items, null));
+
+        mvc.perform(get("/items/search")
+                        .param("text", itemDto.getName())
+                        .param("start", start.toString())
+                        .param("end", end.toString())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(items)));
+
+        verify(itemService, times(1)).searchItem(itemDto.getName(), start, end, 0, 10, null);
+        verify(itemService, never()).searchItem(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void testSuggestItemNames() throws Exception {
+        List<String> suggestions = List.of("harp", "harpsichord");
+
+        when(itemService.suggestItemNames(anyString(), anyInt()))
+                .thenReturn(suggestions);
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "har")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(suggestions)));
+
+        verify(itemService, times(1)).suggestItemNames("har", 10);
+    }
+
+    @Test
+    void testGetItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<TimeSlotDto> busy = List.of(new TimeSlotDto(from.plusDays(1), from.plusDays(3)));
+        TimeSlotDto free = new TimeSlotDto(from.plusDays(3), from.plusDays(5));
+
+        when(itemService.getItemAvailability(itemDto.getId(), from, to))
+                .thenReturn(busy);
+        when(itemService.getNextFreeSlot(itemDto.getId(), Duration.ofDays(2)))
+                .thenReturn(free);
+
+        mvc.perform(get("/items/{itemId}/availability", itemDto.getId())
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(busy)));
+        mvc.perform(get("/items/{itemId}/next-free", itemDto.getId())
+                        .param("duration", "P2D")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(free)));
     }
 
     @Test
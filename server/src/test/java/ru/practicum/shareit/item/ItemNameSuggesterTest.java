@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemNameSuggester;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSaveDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemNameSuggesterTest {
+    private final ItemService itemService;
+    private final UserService userService;
+
+    private UserDto owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.addUser(new UserSaveDto("Floyd", "wrupnk@gmail.com"));
+    }
+
+    @Test
+    void testSuggestOrdersByFrequency() {
+        itemService.addItem(owner.getId(), new ItemSaveDto("Harpsichord", "Old", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Electric harp", "Loud", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Hammer", "Heavy", true, null));
+
+        assertThat(itemService.suggestItemNames("HAR", 10), contains("harp", "harpsichord"));
+        assertThat(itemService.suggestItemNames("ha", 2), contains("harp", "hammer"));
+        assertThat(itemService.suggestItemNames("x", 10), empty());
+        assertThat(itemService.suggestItemNames(" ", 10), empty());
+    }
+
+    @Test
+    void testSuggestFollowsItemUpdates() {
+        ItemDto item = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Hammer", "Broken", false, null));
+
+        assertThat(itemService.suggestItemNames("ha", 10), contains("harp"));
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemSaveDto("Lute", null, null, null));
+
+        assertThat(itemService.suggestItemNames("ha", 10), empty());
+        assertThat(itemService.suggestItemNames("l", 10), contains("lute"));
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemSaveDto(null, null, false, null));
+
+        assertThat(itemService.suggestItemNames("l", 10), empty());
+    }
+
+    @Test
+    void testRebuildKeepsConcurrentUpdates() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        ItemNameSuggester suggester = new ItemNameSuggester(itemRepository);
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Harp");
+        item.setAvailable(true);
+        when(itemRepository.findAllByAvailableTrue()).thenAnswer(invocation -> {
+            suggester.index(item);
+            return List.of();
+        });
+
+        suggester.rebuild();
+
+        assertThat(suggester.suggest("ha", 10), contains("harp"));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemSearchPage;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ItemSearchCacheTest {
+    private MeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+    private List<String> texts;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(100, meterRegistry);
+        loads = new AtomicInteger();
+        texts = new ArrayList<>();
+    }
+
+    @Test
+    void testGetReusesPageForNormalizedText() {
+        ItemSearchPage page = cache.get(" Дрель", 0, 10, null, this::load);
+
+        assertThat(cache.get("  ДРЕЛЬ ", 0, 10, null, this::load), sameInstance(page));
+        assertThat(loads.get(), equalTo(1));
+        assertThat(texts, contains("дрель"));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "miss")
+                .functionCounter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void testGetSeparatesPages() {
+        cache.get("дрель", 0, 10, null, this::load);
+        cache.get("дрель", 10, 10, null, this::load);
+        cache.get("дрель", 0, 10, "MTox", this::load);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void testInvalidateStartsNewGeneration() {
+        cache.get("палатка", 0, 10, null, this::load);
+
+        cache.invalidate();
+        cache.get("палатка", 0, 10, null, this::load);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    private ItemSearchPage load(String text) {
+        loads.incrementAndGet();
+        texts.add(text);
+        return new ItemSearchPage(List.of(), null);
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemSearchCursor;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemSearchHit;
+import ru.practicum.shareit.item.service.ItemSearchSnapshot;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.JpqlItemSearchEngine;
+import ru.practicum.shareit.item.service.TrigramItemSearchEngine;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSaveDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Transactional
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemSearchEngineTest {
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemRepository itemRepository;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+
+    private UserDto owner;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.addUser(new UserSaveDto("Floyd", "wrupnk@gmail.com"));
+    }
+
+    @Test
+    void testSearchRanksNameMatchesFirst() {
+        ItemDto case1 = itemService.addItem(owner.getId(), new ItemSaveDto("Case", "Case for a harp", true, null));
+        ItemDto harp = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+
+        List<ItemSearchHit> items = itemSearchEngine.search("harp", null, 0, 10);
+
+        assertThat(items.stream().map(hit -> hit.item().getId()).toList(), contains(harp.getId(), case1.getId()));
+    }
+
+    @Test
+    void testSearchMatchesPartOfWord() {
+        ItemDto drill = itemService.addItem(owner.getId(),
+                new ItemSaveDto("Аккумуляторная дрель", "Дрель с аккумулятором", true, null));
+
+        List<ItemSearchHit> items = itemSearchEngine.search("аккУМУляторная", null, 0, 10);
+
+        assertThat(items, hasSize(1));
+        assertThat(items.getFirst().item().getId(), equalTo(drill.getId()));
+        assertThat(itemSearchEngine.search("рель", null, 0, 10), hasSize(1));
+    }
+
+    @Test
+    void testSearchRequiresAllTerms() {
+        itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Suit", "Fine suit", true, null));
+
+        assertThat(itemSearchEngine.search("fine suit", null, 0, 10), hasSize(1));
+        assertThat(itemSearchEngine.search("fine", null, 0, 10), hasSize(2));
+        assertThat(itemSearchEngine.search("fine", null, 0, 1), hasSize(1));
+    }
+
+    @Test
+    void testSearchSkipsUnavailableItems() {
+        ItemDto harp = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Old harp", "Broken", false, null));
+
+        assertThat(itemSearchEngine.search("harp", null, 0, 10), hasSize(1));
+
+        itemService.updateItem(owner.getId(), harp.getId(), new ItemSaveDto(null, null, false, null));
+
+        assertThat(itemSearchEngine.search("harp", null, 0, 10), empty());
+    }
+
+    @Test
+    void testSearchReflectsUpdatedName() {
+        ItemDto item = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine instrument", true, null));
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemSaveDto("Lute", null, null, null));
+
+        assertThat(itemSearchEngine.search("harp", null, 0, 10), empty());
+        assertThat(itemSearchEngine.search("lute", null, 0, 10), hasSize(1));
+    }
+
+    @Test
+    void testSearchFillsPageAfterStaleEntries() {
+        ItemDto harp = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        ItemDto case1 = itemService.addItem(owner.getId(), new ItemSaveDto("Harp case", "Case", true, null));
+        ItemDto string = itemService.addItem(owner.getId(), new ItemSaveDto("Harp string", "String", true, null));
+        Item stale = itemRepository.findById(harp.getId()).orElseThrow();
+        stale.setAvailable(false);
+        itemRepository.flush();
+
+        assertThat(itemSearchEngine.search("harp", null, 0, 2).stream().map(hit -> hit.item().getId()).toList(),
+                contains(case1.getId(), string.getId()));
+        assertThat(itemSearchEngine.search("harp", null, 1, 1).stream().map(hit -> hit.item().getId()).toList(),
+                contains(string.getId()));
+        assertThat(itemSearchEngine.search("arp", null, 0, 10), hasSize(2));
+        assertThat(itemSearchEngine.search("a", null, 0, 10), hasSize(2));
+    }
+
+    @Test
+    void testSearchMatchesDatabaseEngines() {
+        itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Suit", "Fine suit", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Case", "Harp case", false, null));
+        List<ItemSearchEngine> engines = List.of(new JpqlItemSearchEngine(itemRepository),
+                new TrigramItemSearchEngine(itemRepository));
+
+        for (ItemSearchEngine engine : engines) {
+            for (String text : List.of("harp", "fine", "suit", "ui", "case")) {
+                List<Long> expected = engine.search(text, null, 0, 10).stream()
+                        .map(hit -> hit.item().getId())
+                        .toList();
+                assertThat(itemSearchEngine.search(text, null, 0, 10).stream()
+                        .map(hit -> hit.item().getId())
+                        .toList(), containsInAnyOrder(expected.toArray()));
+            }
+        }
+    }
+
+    @Test
+    void testSearchAppliesExactOffset() {
+        for (int i = 0; i < 5; i++) {
+            itemService.addItem(owner.getId(), new ItemSaveDto("Harp " + i, "Fine harp", true, null));
+        }
+        List<ItemSearchEngine> engines = List.of(itemSearchEngine, new JpqlItemSearchEngine(itemRepository),
+                new TrigramItemSearchEngine(itemRepository));
+
+        for (ItemSearchEngine engine : engines) {
+            List<Long> all = engine.search("harp", null, 0, 5).stream()
+                    .map(hit -> hit.item().getId())
+                    .toList();
+            assertThat(engine.search("harp", null, 3, 2).stream().map(hit -> hit.item().getId()).toList(),
+                    equalTo(all.subList(3, 5)));
+        }
+    }
+
+    @Test
+    void testTrigramSearchRespectsLimit() {
+        itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        itemService.addItem(owner.getId(), new ItemSaveDto("Suit", "Fine suit", true, null));
+        TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository);
+
+        assertThat(engine.search("fine", null, 0, 1), hasSize(1));
+    }
+
+    @Test
+    void testSearchContinuesAfterCursor() {
+        ItemDto case1 = itemService.addItem(owner.getId(), new ItemSaveDto("Case", "Case for a harp", true, null));
+        ItemDto harp = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        List<ItemSearchEngine> engines = List.of(itemSearchEngine, new JpqlItemSearchEngine(itemRepository),
+                new TrigramItemSearchEngine(itemRepository));
+
+        for (ItemSearchEngine engine : engines) {
+            List<ItemSearchHit> firstPage = engine.search("harp", null, 0, 1);
+            ItemSearchCursor cursor = ItemSearchCursor.decode(ItemSearchCursor.of(firstPage.getFirst()).encode());
+            List<ItemSearchHit> secondPage = engine.search("harp", cursor, 0, 1);
+
+            assertThat(firstPage.getFirst().item().getId(), equalTo(harp.getId()));
+            assertThat(secondPage.stream().map(hit -> hit.item().getId()).toList(), contains(case1.getId()));
+            assertThat(engine.search("harp", cursor, 0, 10), hasSize(1));
+        }
+    }
+
+    @Test
+    void testSearchRestoresFromSnapshot(@TempDir Path directory) {
+        ItemDto harp = itemService.addItem(owner.getId(), new ItemSaveDto("Harp", "Fine harp", true, null));
+        ItemSearchSnapshot snapshot = new ItemSearchSnapshot(true, directory.resolve("items.idx"));
+        InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository, snapshot,
+                new SimpleMeterRegistry());
+        engine.rebuild();
+        engine.saveSnapshot();
+        Item item = new Item();
+        item.setName("Harp case");
+        item.setDescription("Case");
+        item.setAvailable(true);
+        item.setOwner(userRepository.getReferenceById(owner.getId()));
+        Item added = itemRepository.save(item);
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InMemoryItemSearchEngine restored = new InMemoryItemSearchEngine(itemRepository, snapshot, meterRegistry);
+        restored.rebuild();
+
+        assertThat(restored.search("harp", null, 0, 10).stream().map(hit -> hit.item().getId()).toList(),
+                contains(harp.getId(), added.getId()));
+        assertThat(meterRegistry.get("shareit.search.index.warmup").tag("source", "snapshot").timer().count(),
+                equalTo(1L));
+
+        item.setAvailable(false);
+        restored.index(item);
+
+        assertThat(Files.exists(directory.resolve("items.idx")), is(true));
+
+        Item old = itemRepository.findById(harp.getId()).orElseThrow();
+        restored.index(old);
+
+        assertThat(Files.exists(directory.resolve("items.idx")), is(false));
+    }
+}
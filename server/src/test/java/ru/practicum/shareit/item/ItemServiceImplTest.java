@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingSaveDto;
@@ -14,9 +16,11 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BookingUnavailableException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestSaveDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -24,7 +28,10 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserSaveDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -149,6 +156,67 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void testGetAllUserItemsWithBookings() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto item1 = itemService.addItem(owner.getId(), itemDto1);
+        ItemDto item2 = itemService.addItem(owner.getId(), itemDto2);
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingDto1.setItemId(item1.getId());
+        for (int days : List.of(-20, -10, 5, 15)) {
+            bookingDto1.setStart(date.plusDays(days));
+            bookingDto1.setEnd(date.plusDays(days + 2));
+            bookingService.addBooking(booker.getId(), bookingDto1);
+        }
+
+        List<ItemDtoWithBookings> items = itemService.getAllUserItems(owner.getId());
+
+        assertThat(items, containsInAnyOrder(
+                allOf(hasProperty("id", equalTo(item1.getId())),
+                        hasProperty("lastBooking", equalTo(date.minusDays(10))),
+                        hasProperty("nextBooking", equalTo(date.plusDays(5)))),
+                allOf(hasProperty("id", equalTo(item2.getId())),
+                        hasProperty("lastBooking", nullValue()),
+                        hasProperty("nextBooking", nullValue()))));
+    }
+
+    @Test
+    void testGetItemAvailabilityAndNextFreeSlot() {
+        UserDto owner = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto item = itemService.addItem(owner.getId(), itemDto1);
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingDto1.setItemId(item.getId());
+        for (int[] days : new int[][]{{1, 3}, {2, 5}, {5, 6}, {8, 9}, {10, 12}}) {
+            bookingDto1.setStart(date.plusDays(days[0]));
+            bookingDto1.setEnd(date.plusDays(days[1]));
+            BookingDto booking = bookingService.addBooking(booker.getId(), bookingDto1);
+            if (days[0] == 10) {
+                bookingService.approveBooking(owner.getId(), booking.getId(), false);
+            }
+        }
+
+        List<TimeSlotDto> busy = itemService.getItemAvailability(item.getId(), date, date.plusDays(20));
+        TimeSlotDto dayFree = itemService.getNextFreeSlot(item.getId(), Duration.ofDays(1));
+        TimeSlotDto threeDaysFree = itemService.getNextFreeSlot(item.getId(), Duration.ofDays(3));
+        bookingDto1.setStart(date.plusDays(6));
+        bookingDto1.setEnd(date.plusDays(7));
+        bookingService.addBooking(booker.getId(), bookingDto1);
+        TimeSlotDto dayFreeAfterBooking = itemService.getNextFreeSlot(item.getId(), Duration.ofDays(1));
+
+        assertThat(busy, contains(
+                new TimeSlotDto(date.plusDays(1), date.plusDays(6)),
+                new TimeSlotDto(date.plusDays(8), date.plusDays(9))));
+        assertThat(dayFree, equalTo(new TimeSlotDto(date.plusDays(6), date.plusDays(7))));
+        assertThat(threeDaysFree, equalTo(new TimeSlotDto(date.plusDays(9), date.plusDays(12))));
+        assertThat(dayFreeAfterBooking, equalTo(new TimeSlotDto(date.plusDays(7), date.plusDays(8))));
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(item.getId(), date.plusDays(1), date));
+        assertThrows(NotFoundException.class,
+                () -> itemService.getNextFreeSlot(NONEXISTENT_ID, Duration.ofDays(1)));
+    }
+
     @Test
     void testGetItemByIdByOwner() {
         UserDto user1 = userService.addUser(userDto1);
@@ -198,7 +266,7 @@ public class ItemServiceImplTest {
         UserDto user = userService.addUser(userDto1);
         itemService.addItem(user.getId(), itemDto1);
 
-        List<ItemDto> items = itemService.searchItem("harp");
+        List<ItemDto> items = itemService.searchItem("harp", 0, 10, null).getItems();
 
         assertThat(items, hasSize(1));
         assertThat(items.getFirst(), allOf(
@@ -211,11 +279,122 @@ public class ItemServiceImplTest {
 
     @Test
     void testSearchItemBlank() {
-        List<ItemDto> targetItems = itemService.searchItem("");
+        List<ItemDto> targetItems = itemService.searchItem("", 0, 10, null).getItems();
 
         assertThat(targetItems, empty());
     }
 
+    @Test
+    void testSearchItemPages() {
+        UserDto user = userService.addUser(userDto1);
+        ItemDto case1 = itemService.addItem(user.getId(), new ItemSaveDto("Case", "Case for a harp", true, null));
+        ItemDto harp1 = itemService.addItem(user.getId(), itemDto1);
+        ItemDto harp2 = itemService.addItem(user.getId(), new ItemSaveDto("Harp", "Old harp", true, null));
+
+        ItemSearchPage firstPage = itemService.searchItem("harp", 0, 2, null);
+        ItemSearchPage secondPage = itemService.searchItem("harp", 0, 2, firstPage.getNextCursor());
+        ItemSearchPage offsetPage = itemService.searchItem("harp", 2, 2, null);
+
+        assertThat(firstPage.getItems().stream().map(ItemDto::getId).toList(),
+                contains(harp1.getId(), harp2.getId()));
+        assertThat(firstPage.getNextCursor(), notNullValue());
+        assertThat(secondPage.getItems().stream().map(ItemDto::getId).toList(), contains(case1.getId()));
+        assertThat(secondPage.getNextCursor(), nullValue());
+        assertThat(offsetPage.getItems().stream().map(ItemDto::getId).toList(), contains(case1.getId()));
+    }
+
+    @Test
+    void testSearchFreeItems() {
+        UserDto user = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        ItemDto case1 = itemService.addItem(user.getId(), new ItemSaveDto("Case", "Case for a harp", true, null));
+        ItemDto harp1 = itemService.addItem(user.getId(), itemDto1);
+        ItemDto harp2 = itemService.addItem(user.getId(), new ItemSaveDto("Harp", "Old harp", true, null));
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingDto1.setItemId(harp1.getId());
+        bookingDto1.setStart(date.plusDays(1));
+        bookingDto1.setEnd(date.plusDays(3));
+        bookingService.addBooking(booker.getId(), bookingDto1);
+        bookingDto1.setItemId(harp2.getId());
+        BookingDto rejected = bookingService.addBooking(booker.getId(), bookingDto1);
+        bookingService.approveBooking(user.getId(), rejected.getId(), false);
+
+        ItemSearchPage firstPage = itemService.searchItem("harp", date.plusDays(2), date.plusDays(4), 0, 1, null);
+        ItemSearchPage secondPage = itemService.searchItem("harp", date.plusDays(2), date.plusDays(4), 0, 1,
+                firstPage.getNextCursor());
+        ItemSearchPage offsetPage = itemService.searchItem("harp", date.plusDays(2), date.plusDays(4), 1, 10, null);
+        ItemSearchPage laterPage = itemService.searchItem("harp", date.plusDays(3), date.plusDays(4), 0, 10, null);
+
+        assertThat(firstPage.getItems().stream().map(ItemDto::getId).toList(), contains(harp2.getId()));
+        assertThat(secondPage.getItems().stream().map(ItemDto::getId).toList(), contains(case1.getId()));
+        assertThat(offsetPage.getItems().stream().map(ItemDto::getId).toList(), contains(case1.getId()));
+        assertThat(offsetPage.getNextCursor(), nullValue());
+        assertThat(laterPage.getItems(), hasSize(3));
+        assertThrows(ValidationException.class,
+                () -> itemService.searchItem("harp", date.plusDays(2), null, 0, 10, null));
+    }
+
+    @Test
+    void testSearchFreeItemsStopsAtScanLimit() {
+        UserDto user = userService.addUser(userDto1);
+        UserDto booker = userService.addUser(userDto2);
+        List<Long> freeIds = new ArrayList<>();
+        LocalDateTime date = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            ItemDto harp = itemService.addItem(user.getId(), new ItemSaveDto("Harp", "Harp " + i, true, null));
+            if (i % 2 == 0) {
+                freeIds.add(harp.getId());
+            } else {
+                bookingDto1.setItemId(harp.getId());
+                bookingDto1.setStart(date.plusDays(1));
+                bookingDto1.setEnd(date.plusDays(3));
+                bookingService.addBooking(booker.getId(), bookingDto1);
+            }
+        }
+        ItemServiceImpl target = AopTestUtils.getTargetObject(itemService);
+        Object maxScannedHits = ReflectionTestUtils.getField(target, "maxScannedHits");
+        ReflectionTestUtils.setField(target, "maxScannedHits", 1);
+        List<Long> found = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        try {
+            String cursor = null;
+            do {
+                ItemSearchPage page = itemService.searchItem("harp", date.plusDays(2), date.plusDays(4), 0, 2,
+                        cursor);
+                page.getItems().forEach(item -> found.add(item.getId()));
+                pageSizes.add(page.getItems().size());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+        } finally {
+            ReflectionTestUtils.setField(target, "maxScannedHits", maxScannedHits);
+        }
+
+        assertThat(found, containsInAnyOrder(freeIds.toArray()));
+        assertThat(pageSizes, everyItem(lessThanOrEqualTo(2)));
+        assertThat(pageSizes.size(), greaterThan(2));
+    }
+
+    @Test
+    void testSearchItemAfterUpdate() {
+        UserDto user = userService.addUser(userDto1);
+        ItemDto item = itemService.addItem(user.getId(), itemDto1);
+
+        assertThat(itemService.searchItem("harp", 0, 10, null).getItems(), hasSize(1));
+
+        itemService.addItem(user.getId(), new ItemSaveDto("Harp", "Old harp", true, null));
+        assertThat(itemService.searchItem("harp", 0, 10, null).getItems(), hasSize(2));
+
+        itemService.updateItem(user.getId(), item.getId(), new ItemSaveDto(null, null, false, null));
+        assertThat(itemService.searchItem("harp", 0, 10, null).getItems(), hasSize(1));
+    }
+
+    @Test
+    void testSearchItemInvalidPage() {
+        assertThrows(ValidationException.class, () -> itemService.searchItem("harp", -1, 10, null));
+        assertThrows(ValidationException.class, () -> itemService.searchItem("harp", 0, 0, null));
+        assertThrows(ValidationException.class, () -> itemService.searchItem("harp", 0, 10, "bad"));
+    }
+
     @Test
     void testUpdateItem() {
         UserDto user = userService.addUser(userDto1);
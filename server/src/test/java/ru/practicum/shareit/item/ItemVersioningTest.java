@@ -0,0 +1,209 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingSaveDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSaveDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSaveDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.OptimisticLockRetry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Slf4j
+@SpringBootTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemVersioningTest {
+    private static final int THREADS = 4;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final BookingService bookingService;
+    private final ItemController itemController;
+    private final BookingController bookingController;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager em;
+
+    private final List<Long> bookingIds = new ArrayList<>();
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    public void setUp() {
+        owner = userService.addUser(new UserSaveDto("Owner", "version-owner@gmail.com"));
+        booker = userService.addUser(new UserSaveDto("Booker", "version-booker@gmail.com"));
+        item = itemService.addItem(owner.getId(), new ItemSaveDto("Counter", "v", true, null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookingRepository.deleteAllById(bookingIds);
+        itemRepository.deleteById(item.getId());
+        userRepository.deleteById(booker.getId());
+        userRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    void testConcurrentItemUpdates() throws InterruptedException {
+        AtomicInteger sequence = new AtomicInteger();
+        Result result = updateConcurrently(() -> itemController.updateItem(owner.getId(), item.getId(),
+                new ItemSaveDto(null, "v" + sequence.incrementAndGet(), null, null)));
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(result.updated() + result.conflicts(), equalTo(THREADS * UPDATES_PER_THREAD));
+        assertThat(updated.getVersion(), equalTo((long) result.updated()));
+        assertThat(itemService.getItemById(owner.getId(), item.getId()).getDescription(),
+                equalTo(updated.getDescription()));
+    }
+
+    @Test
+    void testConcurrentApprovalsApproveOnlyOne() throws InterruptedException {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < THREADS; i++) {
+            bookingIds.add(bookingService.addBooking(booker.getId(),
+                    new BookingSaveDto(item.getId(), start.plusHours(i), start.plusDays(1))).getId());
+        }
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        List<BookingDto> approved = new CopyOnWriteArrayList<>();
+        runConcurrently(THREADS, () -> {
+            try {
+                approved.add(bookingController.approveBooking(owner.getId(),
+                        bookingIds.get(next.getAndIncrement()), true));
+            } catch (BookingOverlapException e) {
+                overlaps.incrementAndGet();
+            }
+        });
+
+        assertThat(approved, hasSize(1));
+        assertThat(overlaps.get(), equalTo(THREADS - 1));
+        assertThat(bookingRepository.findAllById(bookingIds).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .count(), equalTo(1L));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testOptimisticUpdatesLoseNothing() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Result result = updateConcurrently(() -> optimisticLockRetry.run(() -> transaction.execute(status -> {
+            append(itemRepository.findById(item.getId()).orElseThrow());
+            return null;
+        })));
+        log.info("Оптимистичные блокировки: {} обновлений, {} конфликтов за {} мс, {} оп/с", result.updated(),
+                result.conflicts(), result.millis(), result.throughput());
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(result.updated() + result.conflicts(), equalTo(THREADS * UPDATES_PER_THREAD));
+        assertThat(updated.getDescription().length() - 1, equalTo(result.updated()));
+        assertThat(updated.getVersion(), equalTo((long) result.updated()));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testSelectForUpdateLosesNothing() throws InterruptedException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Result result = updateConcurrently(() -> transaction.executeWithoutResult(status ->
+                append(em.find(Item.class, item.getId(), LockModeType.PESSIMISTIC_WRITE))));
+        log.info("SELECT ... FOR UPDATE: {} обновлений за {} мс, {} оп/с", result.updated(), result.millis(),
+                result.throughput());
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertThat(result.updated(), equalTo(THREADS * UPDATES_PER_THREAD));
+        assertThat(updated.getDescription(), hasLength(THREADS * UPDATES_PER_THREAD + 1));
+    }
+
+    private void append(Item item) {
+        item.setDescription(item.getDescription() + "+");
+    }
+
+    private Result updateConcurrently(Runnable update) throws InterruptedException {
+        AtomicInteger updated = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        long elapsed = runConcurrently(THREADS * UPDATES_PER_THREAD, () -> {
+            try {
+                update.run();
+                updated.incrementAndGet();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+            }
+        });
+        return new Result(updated.get(), conflicts.get(), THREADS * UPDATES_PER_THREAD, elapsed);
+    }
+
+    private long runConcurrently(int operations, Runnable operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int count = operations / THREADS;
+            futures.add(executor.submit(() -> {
+                ready.await();
+                for (int i = 0; i < count; i++) {
+                    operation.run();
+                }
+                return null;
+            }));
+        }
+        long startedAt = System.nanoTime();
+        ready.countDown();
+        for (Future<?> future : futures) {
+            try {
+                future.get(1, TimeUnit.MINUTES);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new AssertionError(e);
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private record Result(int updated, int conflicts, int operations, long nanos) {
+        long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        long throughput() {
+            return operations * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -14,6 +15,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserSaveDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
@@ -30,6 +33,8 @@ public class UserServiceImplTest {
     private final EntityManager em;
     private final UserService userService;
     private final UserMapper userMapper;
+    private final UserExistenceCache userExistenceCache;
+    private final UserRepository userRepository;
 
     private UserSaveDto userDto1;
     private UserSaveDto userDto2;
@@ -143,4 +148,19 @@ public class UserServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> userService.deleteUser(user.getId()));
     }
+
+    @Test
+    void testUserExistenceCache() {
+        TestTransaction.flagForCommit();
+        UserDto user = userService.addUser(userDto1);
+        userExistenceCache.checkExists(user.getId());
+        TestTransaction.end();
+
+        userRepository.deleteById(user.getId());
+        userExistenceCache.checkExists(user.getId());
+
+        userExistenceCache.removed(user.getId());
+        assertThrows(NotFoundException.class, () -> userExistenceCache.checkExists(user.getId()));
+        assertThrows(NotFoundException.class, () -> userExistenceCache.getReference(user.getId()));
+    }
 }